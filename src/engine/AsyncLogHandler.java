@@ -0,0 +1,179 @@
+package engine;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.ErrorManager;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+
+/**
+ * Hands log records to other handlers on a background thread, so logging
+ * never waits for the disk or the console. Records are queued in a lock-free
+ * ring buffer; the writer thread drains them in batches and flushes the
+ * handlers after each batch. When the buffer is full, records are dropped
+ * and counted instead of blocking the caller, and the drops are reported to
+ * the error manager.
+ *
+ * @author <a href="mailto:RobertoIA1987@gmail.com">Roberto Izquierdo Amo</a>
+ *
+ */
+public final class AsyncLogHandler extends Handler {
+
+	/** Number of records the buffer holds, a power of two. */
+	private static final int CAPACITY = 1024;
+	/** Mask for the buffer index. */
+	private static final int MASK = CAPACITY - 1;
+	/** Longest time the writer sleeps without being woken, in nanoseconds. */
+	private static final long IDLE_WAIT = 100000000L;
+
+	/** Handlers the records are written to. */
+	private Handler[] targets;
+	/** Queued records, null in the free slots. */
+	private AtomicReferenceArray<LogRecord> records;
+	/** Sequence number of the next record queued. */
+	private AtomicLong tail;
+	/** Sequence number of the next record written. */
+	private volatile long head;
+	/** Number of records dropped because the buffer was full. */
+	private AtomicLong dropped;
+	/** Number of dropped records already reported. */
+	private long reportedDrops;
+	/** Checks if the writer is about to sleep. */
+	private volatile boolean isWriterIdle;
+	/** Checks if the handler was closed. */
+	private volatile boolean isClosed;
+	/** Thread writing the records. */
+	private Thread writer;
+
+	/**
+	 * Constructor, starts the writer thread.
+	 *
+	 * @param targets
+	 *            Handlers the records are written to.
+	 */
+	public AsyncLogHandler(final Handler... targets) {
+		this.targets = targets;
+		this.records = new AtomicReferenceArray<LogRecord>(CAPACITY);
+		this.tail = new AtomicLong();
+		this.dropped = new AtomicLong();
+		this.writer = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				write();
+			}
+		}, "Log writer");
+		this.writer.setDaemon(true);
+		this.writer.start();
+	}
+
+	/**
+	 * Queues a record for writing. Never blocks.
+	 *
+	 * @param logRecord
+	 *            Record to write.
+	 */
+	@Override
+	public void publish(final LogRecord logRecord) {
+		if (this.isClosed || !isLoggable(logRecord))
+			return;
+
+		long sequence;
+		do {
+			sequence = this.tail.get();
+			if (sequence - this.head >= CAPACITY) {
+				this.dropped.incrementAndGet();
+				return;
+			}
+		} while (!this.tail.compareAndSet(sequence, sequence + 1));
+
+		this.records.set((int) (sequence & MASK), logRecord);
+		if (this.isWriterIdle)
+			LockSupport.unpark(this.writer);
+	}
+
+	/**
+	 * Wakes the writer, which flushes the handlers after each batch.
+	 */
+	@Override
+	public void flush() {
+		LockSupport.unpark(this.writer);
+	}
+
+	/**
+	 * Writes the records still queued, and closes the handlers. Records
+	 * queued by a publish racing with the close are written too, as long as
+	 * they claimed their slot before the close finished; later ones are
+	 * lost, as with any closed handler.
+	 */
+	@Override
+	public void close() {
+		if (this.isClosed)
+			return;
+		this.isClosed = true;
+		LockSupport.unpark(this.writer);
+		try {
+			this.writer.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
+		// A publish that passed the closed check may claim its slot after the
+		// writer saw the buffer empty and stopped.
+		while (this.head != this.tail.get())
+			if (writeBatch() == 0)
+				Thread.yield();
+		for (Handler target : this.targets)
+			target.close();
+	}
+
+	/**
+	 * Writes records as they arrive, until the handler is closed.
+	 */
+	private void write() {
+		while (true) {
+			writeBatch();
+
+			if (this.isClosed && this.head == this.tail.get())
+				return;
+			this.isWriterIdle = true;
+			if (this.records.get((int) (this.head & MASK)) == null
+					&& !this.isClosed)
+				LockSupport.parkNanos(IDLE_WAIT);
+			this.isWriterIdle = false;
+		}
+	}
+
+	/**
+	 * Writes the queued records, reports the records dropped since the last
+	 * batch and flushes the handlers. Runs on the writer thread, or on the
+	 * closing thread once the writer has stopped.
+	 *
+	 * @return Number of records written.
+	 */
+	private int writeBatch() {
+		int batch = 0;
+		LogRecord logRecord;
+		// A claimed slot may still be empty for a moment, the record is then
+		// picked up by the next batch.
+		while ((logRecord = this.records.get((int) (this.head & MASK)))
+				!= null) {
+			this.records.set((int) (this.head & MASK), null);
+			this.head++;
+			for (Handler target : this.targets)
+				target.publish(logRecord);
+			batch++;
+		}
+
+		long drops = this.dropped.get();
+		if (drops != this.reportedDrops) {
+			reportError("Log buffer full, " + (drops - this.reportedDrops)
+					+ " records dropped.", null, ErrorManager.WRITE_FAILURE);
+			this.reportedDrops = drops;
+		}
+		if (batch > 0)
+			for (Handler target : this.targets)
+				target.flush();
+		return batch;
+	}
+}
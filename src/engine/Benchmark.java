@@ -0,0 +1,277 @@
+package engine;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.logging.Logger;
+
+import engine.DrawManager.SpriteType;
+import entity.Entity;
+import screen.GameScreen;
+
+/**
+ * Measures how fast the game runs without a frame limit. Each level is
+ * played from its start by a scripted player, for a number of updates or a
+ * number of seconds or until the level ends, and the update rate, drawing
+ * rate and memory allocated by the game loop are logged. Once the level is
+ * under way, the allocation of each update is measured on its own, and can
+ * be checked against a budget. The first level is played once unmeasured,
+ * so class loading and the first use of each part of the game are not
+ * counted against it. The collision check is also timed on its own,
+ * by areas alone and pixel by pixel.
+ *
+ * @author <a href="mailto:RobertoIA1987@gmail.com">Roberto Izquierdo Amo</a>
+ *
+ */
+public final class Benchmark {
+
+	/** Nanoseconds in a second. */
+	private static final double NANOS_PER_SECOND = 1000000000.0;
+	/** Lives the player starts each level with. */
+	private static final int LIVES = 3;
+	/** Game time until a level is under way, in milliseconds. */
+	private static final int WARM_UP_TIME = 7000;
+	/** Width of the enemy ship the collision check is timed against. */
+	private static final int TARGET_WIDTH = 12 * 2;
+	/** Height of the enemy ship the collision check is timed against. */
+	private static final int TARGET_HEIGHT = 8 * 2;
+	/** Width of the bullet the collision check is timed with. */
+	private static final int BULLET_WIDTH = 3 * 2;
+	/** Height of the bullet the collision check is timed with. */
+	private static final int BULLET_HEIGHT = 5 * 2;
+	/** Distance around the enemy ship the bullet is placed at. */
+	private static final int COLLISION_MARGIN = 48;
+	/** Passes over the bullet positions run before timing. */
+	private static final int COLLISION_WARM_UP = 100;
+	/** Passes over the bullet positions timed. */
+	private static final int COLLISION_ROUNDS = 500;
+
+	/** Difficulty settings of each level. */
+	private List<GameSettings> gameSettings;
+	/** Screen width. */
+	private int width;
+	/** Screen height. */
+	private int height;
+	/** Updates run on each level, 0 to run by time. */
+	private long ticks;
+	/** Nanoseconds each level runs for, if not run by updates. */
+	private long time;
+	/** Bytes each update may allocate once under way, -1 to not check. */
+	private long allocationBudget;
+	/** Measures memory allocated by the game loop, null if unsupported. */
+	private com.sun.management.ThreadMXBean threadBean;
+	/** Updates run when the current level got under way, -1 if not yet. */
+	private long warmTicks;
+	/** Bytes allocated when the current level got under way. */
+	private long warmBytes;
+	/** Application logger. */
+	private Logger logger;
+
+	/**
+	 * Constructor, establishes how long each level runs.
+	 *
+	 * @param gameSettings
+	 *            Difficulty settings of each level.
+	 * @param width
+	 *            Screen width.
+	 * @param height
+	 *            Screen height.
+	 * @param ticks
+	 *            Updates run on each level, 0 to run by time.
+	 * @param seconds
+	 *            Seconds each level runs for, if not run by updates.
+	 * @param allocationBudget
+	 *            Bytes each update may allocate once the level is under
+	 *            way, -1 to not check.
+	 */
+	public Benchmark(final List<GameSettings> gameSettings, final int width,
+			final int height, final long ticks, final int seconds,
+			final long allocationBudget) {
+		this.gameSettings = gameSettings;
+		this.width = width;
+		this.height = height;
+		this.ticks = ticks;
+		this.time = ticks > 0 ? 0 : (long) (seconds * NANOS_PER_SECOND);
+		this.allocationBudget = allocationBudget;
+		this.logger = Core.getLogger();
+
+		java.lang.management.ThreadMXBean bean = ManagementFactory
+				.getThreadMXBean();
+		if (bean instanceof com.sun.management.ThreadMXBean) {
+			this.threadBean = (com.sun.management.ThreadMXBean) bean;
+			if (this.threadBean.isThreadAllocatedMemorySupported())
+				this.threadBean.setThreadAllocatedMemoryEnabled(true);
+			else
+				this.threadBean = null;
+		}
+	}
+
+	/**
+	 * Plays every level and logs its measurements.
+	 * 
+	 * @return False if a level allocated more than the budget.
+	 */
+	public boolean run() {
+		ScriptedInput input = new ScriptedInput(Core.getInputManager());
+		boolean withinBudget = true;
+		long totalTicks = 0;
+		long totalFrames = 0;
+		long totalTime = 0;
+		long totalBytes = 0;
+
+		warmUp(input);
+		for (int level = 1; level <= this.gameSettings.size(); level++) {
+			final GameScreen screen = new GameScreen(new GameState(level, 0,
+					LIVES, 0, 0), this.gameSettings.get(level - 1), false,
+					this.width, this.height, 0);
+			screen.initialize();
+			screen.setRunLimit(this.ticks, this.time);
+			input.start(screen.getTimerWheel());
+			this.warmTicks = -1;
+			screen.getTimerWheel().schedule(new TimerWheel.Timer() {
+				@Override
+				protected void expire() {
+					warmBytes = allocatedBytes();
+					warmTicks = screen.getTicks();
+				}
+			}, WARM_UP_TIME);
+
+			long startBytes = allocatedBytes();
+			long startTime = System.nanoTime();
+			screen.run();
+			long elapsed = System.nanoTime() - startTime;
+			long endBytes = allocatedBytes();
+			long bytes = endBytes - startBytes;
+			input.stop();
+
+			report("Level " + level, screen.getTicks(), screen.getFrames(),
+					elapsed, bytes);
+			if (this.threadBean != null && this.warmTicks >= 0
+					&& screen.getTicks() > this.warmTicks) {
+				double steadyBytes = (double) (endBytes - this.warmBytes)
+						/ (screen.getTicks() - this.warmTicks);
+				this.logger.info(String.format("Benchmark Level %d: %.1f "
+						+ "bytes/tick once under way.", level, steadyBytes));
+				if (this.allocationBudget >= 0
+						&& steadyBytes > this.allocationBudget) {
+					this.logger.severe(String.format("Benchmark Level %d: "
+							+ "over the allocation budget of %d bytes/tick.",
+							level, this.allocationBudget));
+					withinBudget = false;
+				}
+			}
+			totalTicks += screen.getTicks();
+			totalFrames += screen.getFrames();
+			totalTime += elapsed;
+			totalBytes += bytes;
+		}
+
+		report("All levels", totalTicks, totalFrames, totalTime, totalBytes);
+		compareCollisionChecks();
+		return withinBudget;
+	}
+
+	/**
+	 * Plays the first level without measuring it. The one-time costs of the
+	 * first game played, such as loading classes and preparing the first
+	 * special ship and explosion, would otherwise count as allocation of the
+	 * first level once under way.
+	 *
+	 * @param input
+	 *            Scripted player.
+	 */
+	private void warmUp(final ScriptedInput input) {
+		GameScreen screen = new GameScreen(new GameState(1, 0, LIVES, 0, 0),
+				this.gameSettings.get(0), false, this.width, this.height, 0);
+		screen.initialize();
+		screen.setRunLimit(this.ticks, this.time);
+		input.start(screen.getTimerWheel());
+		screen.run();
+		input.stop();
+		this.logger.info("Benchmark warm-up: " + screen.getTicks()
+				+ " ticks played, not measured.");
+	}
+
+	/**
+	 * Logs the measurements of a run.
+	 *
+	 * @param name
+	 *            Name of the run.
+	 * @param ticks
+	 *            Updates run.
+	 * @param frames
+	 *            Drawings made.
+	 * @param elapsed
+	 *            Duration of the run, in nanoseconds.
+	 * @param bytes
+	 *            Memory allocated by the game loop, negative if unknown.
+	 */
+	private void report(final String name, final long ticks,
+			final long frames, final long elapsed, final long bytes) {
+		double seconds = Math.max(1, elapsed) / NANOS_PER_SECOND;
+		String allocation = "unknown";
+		if (this.threadBean != null)
+			allocation = String.format("%.1f", (double) bytes
+					/ Math.max(1, ticks));
+		this.logger.info(String.format("Benchmark %s: %d ticks in %.2f s, "
+				+ "%.1f ticks/s, %.1f frames/s, %s bytes/tick.", name, ticks,
+				seconds, ticks / seconds, frames / seconds, allocation));
+	}
+
+	/**
+	 * Times the collision check between a bullet and an enemy ship, by areas
+	 * alone and pixel by pixel, with the bullet at every position around the
+	 * ship, and logs both.
+	 */
+	private void compareCollisionChecks() {
+		CollisionMasks masks = Core.getCollisionMasks();
+		long areaTime = 0;
+		long exactTime = 0;
+		int areaHits = 0;
+		int exactHits = 0;
+
+		for (int round = 0; round < COLLISION_WARM_UP + COLLISION_ROUNDS;
+				round++) {
+			long start = System.nanoTime();
+			areaHits = 0;
+			for (int x = -COLLISION_MARGIN; x < COLLISION_MARGIN; x++)
+				for (int y = -COLLISION_MARGIN; y < COLLISION_MARGIN; y++)
+					if (Entity.collide(x, y, BULLET_WIDTH, BULLET_HEIGHT, 0,
+							0, TARGET_WIDTH, TARGET_HEIGHT))
+						areaHits++;
+			long middle = System.nanoTime();
+			exactHits = 0;
+			for (int x = -COLLISION_MARGIN; x < COLLISION_MARGIN; x++)
+				for (int y = -COLLISION_MARGIN; y < COLLISION_MARGIN; y++)
+					if (Entity.collide(x, y, BULLET_WIDTH, BULLET_HEIGHT, 0,
+							0, TARGET_WIDTH, TARGET_HEIGHT)
+							&& masks.overlap(SpriteType.Bullet, x, y,
+									SpriteType.EnemyShipA1, 0, 0))
+						exactHits++;
+			long end = System.nanoTime();
+
+			if (round >= COLLISION_WARM_UP) {
+				areaTime += middle - start;
+				exactTime += end - middle;
+			}
+		}
+
+		int positions = 4 * COLLISION_MARGIN * COLLISION_MARGIN;
+		double checks = (double) positions * COLLISION_ROUNDS;
+		this.logger.info(String.format("Benchmark collisions: %d of %d "
+				+ "positions hit by area, %d pixel by pixel; %.2f ns and "
+				+ "%.2f ns per check.", areaHits, positions, exactHits,
+				areaTime / checks, exactTime / checks));
+	}
+
+	/**
+	 * Returns the memory allocated so far by the current thread.
+	 *
+	 * @return Allocated bytes, -1 if unsupported.
+	 */
+	private long allocatedBytes() {
+		if (this.threadBean == null)
+			return -1;
+		return this.threadBean.getThreadAllocatedBytes(Thread
+				.currentThread().getId());
+	}
+}
@@ -8,6 +8,8 @@ package engine;
  */
 public class Cooldown {
 
+	/** Clock the time is read from. */
+	private GameClock clock;
 	/** Cooldown duration. */
 	private int milliseconds;
 	/** Maximum difference between durations. */
@@ -16,15 +18,20 @@ public class Cooldown {
 	private int duration;
 	/** Beginning time. */
 	private long time;
+	/** Checks if the cooldown was ever started. */
+	private boolean isStarted;
 
 	/**
 	 * Constructor, established the time until the action can be performed
 	 * again.
 	 * 
+	 * @param clock
+	 *            Clock the time is read from.
 	 * @param milliseconds
 	 *            Time until cooldown period is finished.
 	 */
-	protected Cooldown(final int milliseconds) {
+	protected Cooldown(final GameClock clock, final int milliseconds) {
+		this.clock = clock;
 		this.milliseconds = milliseconds;
 		this.variance = 0;
 		this.duration = milliseconds;
@@ -35,12 +42,16 @@ public class Cooldown {
 	 * Constructor, established the time until the action can be performed
 	 * again, with a variation of +/- variance.
 	 * 
+	 * @param clock
+	 *            Clock the time is read from.
 	 * @param milliseconds
 	 *            Time until cooldown period is finished.
 	 * @param variance
 	 *            Variance in the cooldown period.
 	 */
-	protected Cooldown(final int milliseconds, final int variance) {
+	protected Cooldown(final GameClock clock, final int milliseconds,
+			final int variance) {
+		this.clock = clock;
 		this.milliseconds = milliseconds;
 		this.variance = variance;
 		this.time = 0;
@@ -52,20 +63,46 @@ public class Cooldown {
 	 * @return Cooldown state.
 	 */
 	public final boolean checkFinished() {
-		if ((this.time == 0)
-				|| this.time + this.duration < System.currentTimeMillis())
+		if (!this.isStarted
+				|| this.time + this.duration < this.clock.getTime())
 			return true;
 		return false;
 	}
 
+	/**
+	 * Returns the time until the cooldown is finished.
+	 * 
+	 * @return Milliseconds left, 0 if finished.
+	 */
+	public final long getTimeLeft() {
+		if (checkFinished())
+			return 0;
+		return this.time + this.duration - this.clock.getTime() + 1;
+	}
+
 	/**
 	 * Restarts the cooldown.
 	 */
 	public final void reset() {
-		this.time = System.currentTimeMillis();
+		this.time = this.clock.getTime();
+		this.isStarted = true;
 		if (this.variance != 0)
-			this.duration = (this.milliseconds - this.variance)
-					+ (int) (Math.random()
-							* (this.milliseconds + this.variance));
+			this.duration = getVariableDuration(this.milliseconds,
+					this.variance);
+	}
+
+	/**
+	 * Picks a random duration for a cooldown with variance.
+	 * 
+	 * @param milliseconds
+	 *            Base duration.
+	 * @param variance
+	 *            Variance in the duration.
+	 * @return Duration of one run, in milliseconds.
+	 */
+	public static int getVariableDuration(final int milliseconds,
+			final int variance) {
+		return (milliseconds - variance)
+				+ (int) (Math.random() * (milliseconds + variance));
 	}
 }
@@ -1,5 +1,8 @@
 package engine;
 
+import java.awt.DisplayMode;
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.logging.ConsoleHandler;
@@ -28,6 +31,10 @@ public final class Core {
 	private static final int HEIGHT = 520;
 	/** Max fps of current screen. */
 	private static final int FPS = 60;
+	/** Frame rate of screens that run without limit. */
+	private static final int UNCAPPED_FPS = 0;
+	/** Drawing rate of screens that draw once per update. */
+	private static final int DRAW_EACH_UPDATE = -1;
 
 	/** Max lives. */
 	private static final int MAX_LIVES = 3;
@@ -35,6 +42,12 @@ public final class Core {
 	private static final int EXTRA_LIFE_FRECUENCY = 3;
 	/** Total number of levels. */
 	private static final int NUM_LEVELS = 7;
+	/** Size a log file grows to before the next one is started. */
+	private static final int LOG_FILE_LIMIT = 1 << 20;
+	/** Number of log files kept. */
+	private static final int LOG_FILE_COUNT = 4;
+	/** Seconds each level runs for in a benchmark, if not given. */
+	private static final int BENCHMARK_SECONDS = 10;
 	
 	/** Difficulty settings for level 1. */
 	private static final GameSettings SETTINGS_LEVEL_1 =
@@ -58,8 +71,10 @@ public final class Core {
 	private static final GameSettings SETTINGS_LEVEL_7 =
 			new GameSettings(8, 7, 2, 500);
 	
-	/** Frame to draw the screen on. */
+	/** Frame to draw the screen on, null when running without display. */
 	private static Frame frame;
+	/** Drawing backend. */
+	private static DrawManager drawManager;
 	/** Screen currently shown. */
 	private static Screen currentScreen;
 	/** Difficulty settings list. */
@@ -71,38 +86,120 @@ public final class Core {
 	private static Handler fileHandler;
 	/** Logger handler for printing to console. */
 	private static ConsoleHandler consoleHandler;
+	/** Logger handler passing records to the others off the game loop. */
+	private static AsyncLogHandler logHandler;
+	/** Checks if the game screen is drawn on its own thread. */
+	private static boolean renderThreadEnabled;
+	/** Records the drawn frames, null if not capturing. */
+	private static FrameCapture frameCapture;
+	/** Clock the game time is read from. */
+	private static GameClock gameClock = new RealTimeClock();
+	/** Measures the phases of the game frames. */
+	private static FrameProfiler profiler = new FrameProfiler(false);
+	/** Prepares the data of the next screens in the background. */
+	private static Preloader preloader;
+	/** Lit pixels of the sprites, for exact collisions. */
+	private static CollisionMasks collisionMasks;
+	/** Drawings per second, 0 for no limit, -1 for one per update. */
+	private static int drawRate = DRAW_EACH_UPDATE;
 
 
 	/**
 	 * Test implementation.
 	 * 
 	 * @param args
-	 *            Program args, ignored.
+	 *            Program args, -raster draws sprites with the software
+	 *            renderer, -scalable makes the window resizable, drawing at
+	 *            the largest integer scale that fits, -threaded draws the
+	 *            game on its own thread, -profile logs the duration of each
+	 *            phase of the game frames, -fps followed by a number sets
+	 *            how many times per second the screens are drawn, as often
+	 *            as possible if 0 and as often as the display refreshes if
+	 *            not given, -offscreen draws only to memory and -headless
+	 *            draws nothing.
+	 *            Without a display, -games followed by a number sets how many
+	 *            games are simulated and -speed followed by a number runs
+	 *            them that many times faster than real time, as fast as
+	 *            possible if not given. -capture followed by a directory records
+	 *            every frame there as PNG images, or as a raw RGB stream if
+	 *            -raw is also given. -benchmark plays each level without a
+	 *            frame limit and logs how fast it runs, for the number of
+	 *            updates following -ticks or the seconds following -seconds,
+	 *            failing if a level allocates more bytes per update than
+	 *            the number following -budget. -verbose also logs every
+	 *            game event.
 	 */
 	public static void main(final String[] args) {
+		boolean rasterRendering = false;
+		boolean scalable = false;
+		String backend = "swing";
+		int simulatedGames = 1;
+		int simulationSpeed = 0;
+		String captureDirectory = null;
+		FrameCapture.Format captureFormat = FrameCapture.Format.PNG;
+		boolean benchmark = false;
+		long benchmarkTicks = 0;
+		int benchmarkSeconds = BENCHMARK_SECONDS;
+		long allocationBudget = -1;
+		Level logLevel = Level.INFO;
+		for (int i = 0; i < args.length; i++)
+			if (args[i].equals("-raster"))
+				rasterRendering = true;
+			else if (args[i].equals("-scalable"))
+				scalable = true;
+			else if (args[i].equals("-profile"))
+				profiler = new FrameProfiler(true);
+			else if (args[i].equals("-threaded"))
+				renderThreadEnabled = true;
+			else if (args[i].equals("-fps") && i + 1 < args.length)
+				drawRate = Math.max(0, Integer.parseInt(args[++i]));
+			else if (args[i].equals("-offscreen"))
+				backend = "offscreen";
+			else if (args[i].equals("-headless"))
+				backend = "headless";
+			else if (args[i].equals("-games") && i + 1 < args.length)
+				simulatedGames = Integer.parseInt(args[++i]);
+			else if (args[i].equals("-speed") && i + 1 < args.length)
+				simulationSpeed = Integer.parseInt(args[++i]);
+			else if (args[i].equals("-capture") && i + 1 < args.length)
+				captureDirectory = args[++i];
+			else if (args[i].equals("-raw"))
+				captureFormat = FrameCapture.Format.RAW;
+			else if (args[i].equals("-benchmark"))
+				benchmark = true;
+			else if (args[i].equals("-ticks") && i + 1 < args.length)
+				benchmarkTicks = Long.parseLong(args[++i]);
+			else if (args[i].equals("-seconds") && i + 1 < args.length)
+				benchmarkSeconds = Integer.parseInt(args[++i]);
+			else if (args[i].equals("-budget") && i + 1 < args.length)
+				allocationBudget = Long.parseLong(args[++i]);
+			else if (args[i].equals("-verbose"))
+				logLevel = Level.ALL;
+
+		// Benchmarks draw to memory unless told to draw nothing.
+		if (benchmark && backend.equals("swing"))
+			backend = "offscreen";
+
 		try {
 			LOGGER.setUseParentHandlers(false);
 
-			fileHandler = new FileHandler("log");
+			fileHandler = new FileHandler("log.%g", LOG_FILE_LIMIT,
+					LOG_FILE_COUNT);
 			fileHandler.setFormatter(new MinimalFormatter());
 
 			consoleHandler = new ConsoleHandler();
 			consoleHandler.setFormatter(new MinimalFormatter());
 
-			LOGGER.addHandler(fileHandler);
-			LOGGER.addHandler(consoleHandler);
-			LOGGER.setLevel(Level.ALL);
+			// Disk and console are written on their own thread.
+			logHandler = new AsyncLogHandler(fileHandler, consoleHandler);
+			LOGGER.addHandler(logHandler);
+			LOGGER.setLevel(logLevel);
 
 		} catch (Exception e) {
 			// TODO handle exception
 			e.printStackTrace();
 		}
 
-		frame = new Frame(WIDTH, HEIGHT);
-		DrawManager.getInstance().setFrame(frame);
-		int width = frame.getWidth();
-		int height = frame.getHeight();
-
 		gameSettings = new ArrayList<GameSettings>();
 		gameSettings.add(SETTINGS_LEVEL_1);
 		gameSettings.add(SETTINGS_LEVEL_2);
@@ -111,16 +208,85 @@ public final class Core {
 		gameSettings.add(SETTINGS_LEVEL_5);
 		gameSettings.add(SETTINGS_LEVEL_6);
 		gameSettings.add(SETTINGS_LEVEL_7);
-		
+		preloader = new Preloader(gameSettings);
+		collisionMasks = new CollisionMasks(getFileManager(), LOGGER);
+
+		if (!backend.equals("swing")) {
+			if (backend.equals("offscreen")) {
+				OffscreenDrawManager offscreenDrawManager =
+						new OffscreenDrawManager();
+				offscreenDrawManager.setRasterRendering(rasterRendering);
+				startCapture(offscreenDrawManager, captureDirectory,
+						captureFormat);
+				drawManager = offscreenDrawManager;
+			} else {
+				if (captureDirectory != null)
+					LOGGER.warning("Nothing is drawn without display, no "
+							+ "frames will be captured; use -offscreen to "
+							+ "capture them.");
+				drawManager = new NoOpDrawManager();
+			}
+			// Game time advances a fixed step per update, whatever the speed.
+			gameClock = new TickClock(FPS);
+
+			if (benchmark) {
+				LOGGER.info("Benchmarking every level using the " + backend
+						+ " backend.");
+				boolean withinBudget = new Benchmark(gameSettings, WIDTH,
+						HEIGHT, benchmarkTicks, benchmarkSeconds,
+						allocationBudget).run();
+				stopCapture();
+				closeLog();
+				System.exit(withinBudget ? 0 : 1);
+			}
+
+			LOGGER.info("Simulating " + simulatedGames + " games without "
+					+ "display, using the " + backend + " backend.");
+			int simulationFps = UNCAPPED_FPS;
+			if (simulationSpeed > 0)
+				simulationFps = FPS * simulationSpeed;
+
+			for (int i = 0; i < simulatedGames; i++) {
+				GameState gameState = playGame(WIDTH, HEIGHT, simulationFps);
+				LOGGER.info("Simulated game " + (i + 1) + " finished with a "
+						+ "score of " + gameState.getScore() + ".");
+			}
+
+			stopCapture();
+			closeLog();
+			System.exit(0);
+		}
+
+		frame = new Frame(WIDTH, HEIGHT);
+		if (drawRate == DRAW_EACH_UPDATE) {
+			// Drawn as often as the display shows them, if it tells.
+			DisplayMode displayMode = frame.getGraphicsConfiguration()
+					.getDevice().getDisplayMode();
+			if (displayMode.getRefreshRate()
+					!= DisplayMode.REFRESH_RATE_UNKNOWN)
+				drawRate = displayMode.getRefreshRate();
+		}
+		LOGGER.info("Updating at " + FPS + " steps per second, drawing at "
+				+ (drawRate == DRAW_EACH_UPDATE ? "the same rate."
+						: drawRate == UNCAPPED_FPS ? "no limit."
+								: drawRate + " frames per second."));
+		SwingDrawManager swingDrawManager = new SwingDrawManager(frame);
+		swingDrawManager.setRasterRendering(rasterRendering);
+		if (scalable)
+			swingDrawManager.setScalable();
+		startCapture(swingDrawManager, captureDirectory, captureFormat);
+		drawManager = swingDrawManager;
+		int width = frame.getWidth();
+		int height = frame.getHeight();
+
 		GameState gameState;
 
 		int returnCode = 1;
 		do {
-			gameState = new GameState(1, 0, MAX_LIVES, 0, 0);
-
 			switch (returnCode) {
 			case 1:
 				// Main menu.
+				preloader.preloadHighScores();
 				currentScreen = new TitleScreen(width, height, FPS);
 				LOGGER.info("Starting " + WIDTH + "x" + HEIGHT
 						+ " title screen at " + FPS + " fps.");
@@ -129,30 +295,8 @@ public final class Core {
 				break;
 			case 2:
 				// Game & score.
-				do {
-					// One extra live every few levels.
-					boolean bonusLife = gameState.getLevel()
-							% EXTRA_LIFE_FRECUENCY == 0
-							&& gameState.getLivesRemaining() < MAX_LIVES;
-					
-					currentScreen = new GameScreen(gameState,
-							gameSettings.get(gameState.getLevel() - 1),
-							bonusLife, width, height, FPS);
-					LOGGER.info("Starting " + WIDTH + "x" + HEIGHT
-							+ " game screen at " + FPS + " fps.");
-					frame.setScreen(currentScreen);
-					LOGGER.info("Closing game screen.");
-
-					gameState = ((GameScreen) currentScreen).getGameState();
-
-					gameState = new GameState(gameState.getLevel() + 1,
-							gameState.getScore(),
-							gameState.getLivesRemaining(),
-							gameState.getBulletsShot(),
-							gameState.getShipsDestroyed());
-
-				} while (gameState.getLivesRemaining() > 0
-						&& gameState.getLevel() <= NUM_LEVELS);
+				preloader.preloadHighScores();
+				gameState = playGame(width, height, FPS);
 
 				LOGGER.info("Starting " + WIDTH + "x" + HEIGHT
 						+ " score screen at " + FPS + " fps, with a score of "
@@ -178,11 +322,111 @@ public final class Core {
 
 		} while (returnCode != 0);
 
-		fileHandler.flush();
-		fileHandler.close();
+		stopCapture();
+		closeLog();
 		System.exit(0);
 	}
 
+	/**
+	 * Plays every level of a game, until the player runs out of lives.
+	 * 
+	 * @param width
+	 *            Screen width.
+	 * @param height
+	 *            Screen height.
+	 * @param fps
+	 *            Frame rate at which the game is run.
+	 * @return Final state of the game.
+	 */
+	private static GameState playGame(final int width, final int height,
+			final int fps) {
+		GameState gameState = new GameState(1, 0, MAX_LIVES, 0, 0);
+		preloader.preloadLevel(1);
+
+		do {
+			// One extra live every few levels.
+			boolean bonusLife = gameState.getLevel()
+					% EXTRA_LIFE_FRECUENCY == 0
+					&& gameState.getLivesRemaining() < MAX_LIVES;
+
+			currentScreen = new GameScreen(gameState,
+					gameSettings.get(gameState.getLevel() - 1),
+					bonusLife, width, height, fps);
+			LOGGER.info("Starting " + WIDTH + "x" + HEIGHT
+					+ " game screen at " + fps + " fps.");
+			showScreen(currentScreen);
+			LOGGER.info("Closing game screen.");
+
+			gameState = ((GameScreen) currentScreen).getGameState();
+
+			gameState = new GameState(gameState.getLevel() + 1,
+					gameState.getScore(),
+					gameState.getLivesRemaining(),
+					gameState.getBulletsShot(),
+					gameState.getShipsDestroyed());
+
+		} while (gameState.getLivesRemaining() > 0
+				&& gameState.getLevel() <= NUM_LEVELS);
+
+		return gameState;
+	}
+
+	/**
+	 * Runs a screen, on the frame if there is one.
+	 * 
+	 * @param screen
+	 *            Screen to run.
+	 * @return Return code of the finished screen.
+	 */
+	private static int showScreen(final Screen screen) {
+		if (frame != null)
+			return frame.setScreen(screen);
+		screen.initialize();
+		return screen.run();
+	}
+
+	/**
+	 * Starts recording the frames drawn by a draw manager.
+	 * 
+	 * @param offscreenDrawManager
+	 *            Draw manager whose frames are recorded.
+	 * @param directory
+	 *            Directory to write the frames to, null to not record.
+	 * @param format
+	 *            Format of the written frames.
+	 */
+	private static void startCapture(
+			final OffscreenDrawManager offscreenDrawManager,
+			final String directory, final FrameCapture.Format format) {
+		if (directory == null)
+			return;
+		try {
+			frameCapture = new FrameCapture(new File(directory), format);
+			offscreenDrawManager.setFrameCapture(frameCapture);
+		} catch (IOException e) {
+			LOGGER.warning("Couldn't start capturing frames to "
+					+ directory + ".");
+		}
+	}
+
+	/**
+	 * Writes the frames still waiting and stops recording.
+	 */
+	private static void stopCapture() {
+		if (frameCapture != null) {
+			frameCapture.close();
+			frameCapture = null;
+		}
+	}
+
+	/**
+	 * Writes the log records still queued and closes the log files.
+	 */
+	private static void closeLog() {
+		if (logHandler != null)
+			logHandler.close();
+	}
+
 	/**
 	 * Constructor, not called.
 	 */
@@ -199,13 +443,67 @@ public final class Core {
 		return LOGGER;
 	}
 
+	/**
+	 * Checks if the game screen is drawn on its own thread.
+	 * 
+	 * @return True if drawing is done by a render thread.
+	 */
+	public static boolean isRenderThreadEnabled() {
+		return renderThreadEnabled;
+	}
+
+	/**
+	 * Controls access to the drawing rate of the screens.
+	 * 
+	 * @return Drawings per second, 0 for no limit, -1 for one per update.
+	 */
+	public static int getDrawRate() {
+		return drawRate;
+	}
+
+	/**
+	 * Controls access to the game clock.
+	 * 
+	 * @return Clock the game time is read from.
+	 */
+	public static GameClock getClock() {
+		return gameClock;
+	}
+
+	/**
+	 * Controls access to the frame profiler.
+	 * 
+	 * @return Profiler of the game frames.
+	 */
+	public static FrameProfiler getProfiler() {
+		return profiler;
+	}
+
+	/**
+	 * Controls access to the preloader.
+	 * 
+	 * @return Preloader of the next screens.
+	 */
+	public static Preloader getPreloader() {
+		return preloader;
+	}
+
+	/**
+	 * Controls access to the collision masks.
+	 * 
+	 * @return Lit pixels of the sprites.
+	 */
+	public static CollisionMasks getCollisionMasks() {
+		return collisionMasks;
+	}
+
 	/**
 	 * Controls access to the drawing manager.
 	 * 
 	 * @return Application draw manager.
 	 */
 	public static DrawManager getDrawManager() {
-		return DrawManager.getInstance();
+		return drawManager;
 	}
 
 	/**
@@ -234,7 +532,7 @@ public final class Core {
 	 * @return A new cooldown.
 	 */
 	public static Cooldown getCooldown(final int milliseconds) {
-		return new Cooldown(milliseconds);
+		return new Cooldown(gameClock, milliseconds);
 	}
 
 	/**
@@ -248,6 +546,6 @@ public final class Core {
 	 */
 	public static Cooldown getVariableCooldown(final int milliseconds,
 			final int variance) {
-		return new Cooldown(milliseconds, variance);
+		return new Cooldown(gameClock, milliseconds, variance);
 	}
 }
\ No newline at end of file
@@ -0,0 +1,211 @@
+package engine;
+
+/**
+ * Keeps track of the areas of the screen that changed since the last frame,
+ * so only those have to be drawn again.
+ *
+ * @author <a href="mailto:RobertoIA1987@gmail.com">Roberto Izquierdo Amo</a>
+ *
+ */
+public final class DirtyRegion {
+
+	/** Maximum number of rectangles kept separately. */
+	private static final int MAX_RECTANGLES = 128;
+
+	/** Position in the x-axis of each rectangle. */
+	private int[] positionX;
+	/** Position in the y-axis of each rectangle. */
+	private int[] positionY;
+	/** Width of each rectangle. */
+	private int[] width;
+	/** Height of each rectangle. */
+	private int[] height;
+	/** Number of rectangles. */
+	private int count;
+	/** Checks if the whole screen has to be drawn again. */
+	private boolean isFull;
+	/** Left side of the union of the rectangles. */
+	private int minX;
+	/** Upper side of the union of the rectangles. */
+	private int minY;
+	/** Right side of the union of the rectangles. */
+	private int maxX;
+	/** Lower side of the union of the rectangles. */
+	private int maxY;
+
+	/**
+	 * Constructor, starts with the whole screen marked as changed.
+	 */
+	public DirtyRegion() {
+		this.positionX = new int[MAX_RECTANGLES];
+		this.positionY = new int[MAX_RECTANGLES];
+		this.width = new int[MAX_RECTANGLES];
+		this.height = new int[MAX_RECTANGLES];
+		reset();
+		this.isFull = true;
+	}
+
+	/**
+	 * Marks a rectangle as changed.
+	 *
+	 * @param x
+	 *            Position in the x-axis of the rectangle.
+	 * @param y
+	 *            Position in the y-axis of the rectangle.
+	 * @param rectangleWidth
+	 *            Width of the rectangle.
+	 * @param rectangleHeight
+	 *            Height of the rectangle.
+	 */
+	public void add(final int x, final int y, final int rectangleWidth,
+			final int rectangleHeight) {
+		if (this.isFull || rectangleWidth <= 0 || rectangleHeight <= 0)
+			return;
+
+		this.minX = Math.min(this.minX, x);
+		this.minY = Math.min(this.minY, y);
+		this.maxX = Math.max(this.maxX, x + rectangleWidth);
+		this.maxY = Math.max(this.maxY, y + rectangleHeight);
+
+		if (this.count < MAX_RECTANGLES) {
+			this.positionX[this.count] = x;
+			this.positionY[this.count] = y;
+			this.width[this.count] = rectangleWidth;
+			this.height[this.count] = rectangleHeight;
+			this.count++;
+		} else {
+			// Too many rectangles, they are collapsed into their union.
+			this.count = 1;
+			this.positionX[0] = this.minX;
+			this.positionY[0] = this.minY;
+			this.width[0] = this.maxX - this.minX;
+			this.height[0] = this.maxY - this.minY;
+		}
+	}
+
+	/**
+	 * Marks the whole screen as changed.
+	 */
+	public void markFull() {
+		this.isFull = true;
+	}
+
+	/**
+	 * Forgets every change, to be called once the frame is drawn.
+	 */
+	public void reset() {
+		this.count = 0;
+		this.isFull = false;
+		this.minX = Integer.MAX_VALUE;
+		this.minY = Integer.MAX_VALUE;
+		this.maxX = Integer.MIN_VALUE;
+		this.maxY = Integer.MIN_VALUE;
+	}
+
+	/**
+	 * Checks if the whole screen has to be drawn again.
+	 *
+	 * @return True if the whole screen changed.
+	 */
+	public boolean isFull() {
+		return this.isFull;
+	}
+
+	/**
+	 * Checks if nothing changed.
+	 *
+	 * @return True if there are no changes.
+	 */
+	public boolean isEmpty() {
+		return !this.isFull && this.count == 0;
+	}
+
+	/**
+	 * Getter for the number of changed rectangles.
+	 *
+	 * @return Number of rectangles.
+	 */
+	public int getCount() {
+		return this.count;
+	}
+
+	/**
+	 * Getter for the position in the x-axis of a rectangle.
+	 *
+	 * @param index
+	 *            Index of the rectangle.
+	 * @return Left side of the rectangle.
+	 */
+	public int getPositionX(final int index) {
+		return this.positionX[index];
+	}
+
+	/**
+	 * Getter for the position in the y-axis of a rectangle.
+	 *
+	 * @param index
+	 *            Index of the rectangle.
+	 * @return Upper side of the rectangle.
+	 */
+	public int getPositionY(final int index) {
+		return this.positionY[index];
+	}
+
+	/**
+	 * Getter for the width of a rectangle.
+	 *
+	 * @param index
+	 *            Index of the rectangle.
+	 * @return Width of the rectangle.
+	 */
+	public int getWidth(final int index) {
+		return this.width[index];
+	}
+
+	/**
+	 * Getter for the height of a rectangle.
+	 *
+	 * @param index
+	 *            Index of the rectangle.
+	 * @return Height of the rectangle.
+	 */
+	public int getHeight(final int index) {
+		return this.height[index];
+	}
+
+	/**
+	 * Getter for the left side of the union of the changed rectangles.
+	 *
+	 * @return Position in the x-axis of the union.
+	 */
+	public int getUnionMinX() {
+		return this.minX;
+	}
+
+	/**
+	 * Getter for the upper side of the union of the changed rectangles.
+	 *
+	 * @return Position in the y-axis of the union.
+	 */
+	public int getUnionMinY() {
+		return this.minY;
+	}
+
+	/**
+	 * Getter for the right side of the union of the changed rectangles.
+	 *
+	 * @return Position in the x-axis of the right side, exclusive.
+	 */
+	public int getUnionMaxX() {
+		return this.maxX;
+	}
+
+	/**
+	 * Getter for the lower side of the union of the changed rectangles.
+	 *
+	 * @return Position in the y-axis of the lower side, exclusive.
+	 */
+	public int getUnionMaxY() {
+		return this.maxY;
+	}
+}
@@ -0,0 +1,242 @@
+package engine;
+
+import java.awt.Color;
+
+import engine.DrawManager.SpriteType;
+
+/**
+ * Collects the sprite draws of a frame as packed integer commands, so they
+ * can be submitted together grouped by color and sprite. Storage is
+ * allocated once and reused between frames.
+ *
+ * @author <a href="mailto:RobertoIA1987@gmail.com">Roberto Izquierdo Amo</a>
+ *
+ */
+public final class DrawCommandList {
+
+	/** Initial number of commands that fit in the list. */
+	private static final int INITIAL_CAPACITY = 256;
+	/** Integers used by each command. */
+	private static final int COMMAND_SIZE = 4;
+	/** Offset of the sprite type in a command. */
+	private static final int SPRITE = 0;
+	/** Offset of the position in the x-axis in a command. */
+	private static final int POSITION_X = 1;
+	/** Offset of the position in the y-axis in a command. */
+	private static final int POSITION_Y = 2;
+	/** Offset of the color index in a command. */
+	private static final int COLOR = 3;
+	/** Sprite types, by ordinal. */
+	private static final SpriteType[] SPRITE_TYPES = SpriteType.values();
+
+	/** Commands in the order they were added. */
+	private int[] commands;
+	/** Commands grouped by color and sprite. */
+	private int[] sortedCommands;
+	/** Number of commands with each color and sprite key. */
+	private int[] keyCounts;
+	/** Colors used by the commands. */
+	private Color[] palette;
+	/** Number of colors in the palette. */
+	private int paletteSize;
+	/** Number of commands. */
+	private int count;
+	/** Checks if the sorted commands are up to date. */
+	private boolean isSorted;
+
+	/**
+	 * Constructor, allocates the storage.
+	 */
+	public DrawCommandList() {
+		this.commands = new int[INITIAL_CAPACITY * COMMAND_SIZE];
+		this.sortedCommands = new int[INITIAL_CAPACITY * COMMAND_SIZE];
+		this.palette = new Color[8];
+		this.keyCounts = new int[this.palette.length * SPRITE_TYPES.length];
+	}
+
+	/**
+	 * Removes every command. The palette is kept, as frames usually reuse
+	 * the same colors.
+	 */
+	public void clear() {
+		this.count = 0;
+		this.isSorted = true;
+	}
+
+	/**
+	 * Adds a sprite draw.
+	 *
+	 * @param spriteType
+	 *            Sprite to be drawn.
+	 * @param color
+	 *            Color of the sprite.
+	 * @param positionX
+	 *            Coordinates for the left side of the image.
+	 * @param positionY
+	 *            Coordinates for the upper side of the image.
+	 */
+	public void add(final SpriteType spriteType, final Color color,
+			final int positionX, final int positionY) {
+		if (this.count * COMMAND_SIZE == this.commands.length)
+			grow();
+
+		int offset = this.count * COMMAND_SIZE;
+		this.commands[offset + SPRITE] = spriteType.ordinal();
+		this.commands[offset + POSITION_X] = positionX;
+		this.commands[offset + POSITION_Y] = positionY;
+		this.commands[offset + COLOR] = colorIndex(color);
+		this.count++;
+		this.isSorted = false;
+	}
+
+	/**
+	 * Groups the commands by color and then by sprite, keeping the order
+	 * they were added in within each group.
+	 */
+	public void sort() {
+		if (this.isSorted)
+			return;
+
+		// Counting sort, the keys are few and known in advance.
+		int keys = this.paletteSize * SPRITE_TYPES.length;
+		for (int i = 0; i < keys; i++)
+			this.keyCounts[i] = 0;
+		for (int i = 0; i < this.count; i++)
+			this.keyCounts[key(this.commands, i)]++;
+
+		int position = 0;
+		for (int i = 0; i < keys; i++) {
+			int keyCount = this.keyCounts[i];
+			this.keyCounts[i] = position;
+			position += keyCount;
+		}
+
+		for (int i = 0; i < this.count; i++) {
+			int target = this.keyCounts[key(this.commands, i)]++;
+			System.arraycopy(this.commands, i * COMMAND_SIZE,
+					this.sortedCommands, target * COMMAND_SIZE, COMMAND_SIZE);
+		}
+		this.isSorted = true;
+	}
+
+	/**
+	 * Getter for the number of commands.
+	 *
+	 * @return Number of commands.
+	 */
+	public int getCount() {
+		return this.count;
+	}
+
+	/**
+	 * Getter for the sprite of a sorted command.
+	 *
+	 * @param index
+	 *            Index of the command, after sorting.
+	 * @return Sprite to be drawn.
+	 */
+	public SpriteType getSpriteType(final int index) {
+		return SPRITE_TYPES[this.sortedCommands[index * COMMAND_SIZE
+				+ SPRITE]];
+	}
+
+	/**
+	 * Getter for the color of a sorted command.
+	 *
+	 * @param index
+	 *            Index of the command, after sorting.
+	 * @return Color of the sprite.
+	 */
+	public Color getColor(final int index) {
+		return this.palette[this.sortedCommands[index * COMMAND_SIZE
+				+ COLOR]];
+	}
+
+	/**
+	 * Getter for the position in the x-axis of a sorted command.
+	 *
+	 * @param index
+	 *            Index of the command, after sorting.
+	 * @return Coordinates for the left side of the image.
+	 */
+	public int getPositionX(final int index) {
+		return this.sortedCommands[index * COMMAND_SIZE + POSITION_X];
+	}
+
+	/**
+	 * Getter for the position in the y-axis of a sorted command.
+	 *
+	 * @param index
+	 *            Index of the command, after sorting.
+	 * @return Coordinates for the upper side of the image.
+	 */
+	public int getPositionY(final int index) {
+		return this.sortedCommands[index * COMMAND_SIZE + POSITION_Y];
+	}
+
+	/**
+	 * Checks if two sorted commands share color and sprite, so the second
+	 * one needs no state change.
+	 *
+	 * @param index
+	 *            Index of a command, after sorting.
+	 * @param otherIndex
+	 *            Index of another command, after sorting.
+	 * @return True if both use the same color and sprite.
+	 */
+	public boolean isSameBatch(final int index, final int otherIndex) {
+		return key(this.sortedCommands, index) == key(this.sortedCommands,
+				otherIndex);
+	}
+
+	/**
+	 * Returns the color and sprite key of a command.
+	 *
+	 * @param buffer
+	 *            Buffer holding the command.
+	 * @param index
+	 *            Index of the command in the buffer.
+	 * @return Key of the command.
+	 */
+	private static int key(final int[] buffer, final int index) {
+		int offset = index * COMMAND_SIZE;
+		return buffer[offset + COLOR] * SPRITE_TYPES.length
+				+ buffer[offset + SPRITE];
+	}
+
+	/**
+	 * Returns the palette index of a color, adding it if not present.
+	 *
+	 * @param color
+	 *            Color to look up.
+	 * @return Index of the color in the palette.
+	 */
+	private int colorIndex(final Color color) {
+		// Only a handful of colors are used, a linear search is enough.
+		for (int i = 0; i < this.paletteSize; i++)
+			if (this.palette[i] == color || this.palette[i].equals(color))
+				return i;
+
+		if (this.paletteSize == this.palette.length) {
+			Color[] newPalette = new Color[this.palette.length * 2];
+			System.arraycopy(this.palette, 0, newPalette, 0,
+					this.paletteSize);
+			this.palette = newPalette;
+			this.keyCounts = new int[this.palette.length
+					* SPRITE_TYPES.length];
+		}
+		this.palette[this.paletteSize] = color;
+		return this.paletteSize++;
+	}
+
+	/**
+	 * Doubles the capacity of the list.
+	 */
+	private void grow() {
+		int[] newCommands = new int[this.commands.length * 2];
+		System.arraycopy(this.commands, 0, newCommands, 0,
+				this.count * COMMAND_SIZE);
+		this.commands = newCommands;
+		this.sortedCommands = new int[newCommands.length];
+	}
+}
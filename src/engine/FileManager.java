@@ -17,6 +17,7 @@ import java.net.URLDecoder;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.logging.Logger;
@@ -56,6 +57,32 @@ public final class FileManager {
 		return instance;
 	}
 
+	/**
+	 * Creates the mapping of each sprite type to an empty matrix of its size,
+	 * in the order the sprites are stored on disk.
+	 * 
+	 * @return Mapping to load the sprites into.
+	 */
+	public Map<SpriteType, boolean[][]> createSpriteMap() {
+		Map<SpriteType, boolean[][]> spriteMap =
+				new LinkedHashMap<SpriteType, boolean[][]>();
+
+		spriteMap.put(SpriteType.Ship, new boolean[13][8]);
+		spriteMap.put(SpriteType.ShipDestroyed, new boolean[13][8]);
+		spriteMap.put(SpriteType.Bullet, new boolean[3][5]);
+		spriteMap.put(SpriteType.EnemyBullet, new boolean[3][5]);
+		spriteMap.put(SpriteType.EnemyShipA1, new boolean[12][8]);
+		spriteMap.put(SpriteType.EnemyShipA2, new boolean[12][8]);
+		spriteMap.put(SpriteType.EnemyShipB1, new boolean[12][8]);
+		spriteMap.put(SpriteType.EnemyShipB2, new boolean[12][8]);
+		spriteMap.put(SpriteType.EnemyShipC1, new boolean[12][8]);
+		spriteMap.put(SpriteType.EnemyShipC2, new boolean[12][8]);
+		spriteMap.put(SpriteType.EnemyShipSpecial, new boolean[16][7]);
+		spriteMap.put(SpriteType.Explosion, new boolean[13][7]);
+
+		return spriteMap;
+	}
+
 	/**
 	 * Loads sprites from disk.
 	 * 
@@ -72,16 +99,22 @@ public final class FileManager {
 		try {
 			inputStream = DrawManager.class.getClassLoader()
 					.getResourceAsStream("graphics");
-			char c;
+			if (inputStream == null)
+				throw new IOException("Sprite resource not found.");
+			int c;
 
 			// Sprite loading.
 			for (Map.Entry<SpriteType, boolean[][]> sprite : spriteMap
 					.entrySet()) {
 				for (int i = 0; i < sprite.getValue().length; i++)
 					for (int j = 0; j < sprite.getValue()[i].length; j++) {
-						do
-							c = (char) inputStream.read();
-						while (c != '0' && c != '1');
+						do {
+							c = inputStream.read();
+							if (c == -1)
+								throw new IOException("Sprite resource "
+										+ "ended before " + sprite.getKey()
+										+ ".");
+						} while (c != '0' && c != '1');
 
 						if (c == '1')
 							sprite.getValue()[i][j] = true;
@@ -37,6 +37,9 @@ public class Frame extends JFrame {
 
 		setLocationRelativeTo(null);
 		setVisible(true);
+		setIgnoreRepaint(true);
+		// Page flipping if available, accelerated blitting if not.
+		createBufferStrategy(2);
 
 		Insets insets = getInsets();
 		this.width = width - insets.left - insets.right;
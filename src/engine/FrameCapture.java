@@ -0,0 +1,300 @@
+package engine;
+
+import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+import javax.imageio.ImageIO;
+
+/**
+ * Records the drawn frames to disk. Frames are copied into preallocated
+ * buffers and written by background workers, so the game loop never waits
+ * for them; frames are dropped when every buffer is in use. The capture
+ * follows the size of the frames, so changing the pixel scale resizes each
+ * buffer once, the next time it is used.
+ *
+ * @author <a href="mailto:RobertoIA1987@gmail.com">Roberto Izquierdo Amo</a>
+ *
+ */
+public final class FrameCapture {
+
+	/** Number of frame buffers. */
+	private static final int POOL_SIZE = 32;
+	/** Number of workers writing images. */
+	private static final int IMAGE_WORKERS = 2;
+	/** Milliseconds a worker waits for a frame before checking if done. */
+	private static final int POLL_TIME = 100;
+
+	/** Formats the frames can be written in. */
+	public static enum Format {
+		/** One PNG image for each frame. */
+		PNG,
+		/** A single file with the RGB bytes of every frame in a row. */
+		RAW
+	};
+
+	/** Copy of a frame waiting to be written. */
+	private static final class CapturedFrame {
+		/** Pixels of the frame. */
+		private int[] pixels;
+		/** Width of the frame. */
+		private int width;
+		/** Height of the frame. */
+		private int height;
+		/** Number of the frame since the capture started. */
+		private long number;
+	}
+
+	/** Application logger. */
+	private Logger logger;
+	/** Directory the frames are written to. */
+	private File directory;
+	/** Format of the written frames. */
+	private Format format;
+	/** Width of the frames, 0 until the first frame arrives. */
+	private int width;
+	/** Height of the frames, 0 until the first frame arrives. */
+	private int height;
+	/** Buffers not in use. */
+	private BlockingQueue<CapturedFrame> freeFrames;
+	/** Frames waiting to be written. */
+	private BlockingQueue<CapturedFrame> pendingFrames;
+	/** Threads writing the frames. */
+	private Thread[] workers;
+	/** If the workers keep waiting for frames. */
+	private volatile boolean isRunning;
+	/** Number of frames offered. */
+	private long frameCount;
+	/** Number of frames dropped because no buffer was free. */
+	private long droppedCount;
+	/** Number of frames written. */
+	private AtomicLong writtenCount;
+	/** Stream of the raw format file being written. */
+	private OutputStream rawOutput;
+	/** Width of the frames in the raw format file being written. */
+	private int rawWidth;
+	/** Height of the frames in the raw format file being written. */
+	private int rawHeight;
+	/** Number of raw format files opened. */
+	private int rawFileCount;
+
+	/**
+	 * Constructor, starts the workers. The buffers are allocated with the
+	 * size of the first frame, as the drawing backend decides it.
+	 *
+	 * @param directory
+	 *            Directory the frames are written to.
+	 * @param format
+	 *            Format of the written frames.
+	 * @throws IOException
+	 *             In case the output can not be created.
+	 */
+	public FrameCapture(final File directory, final Format format)
+			throws IOException {
+		this.logger = Core.getLogger();
+		this.directory = directory;
+		this.format = format;
+		this.writtenCount = new AtomicLong();
+
+		if (!directory.isDirectory() && !directory.mkdirs())
+			throw new IOException("Couldn't create " + directory);
+
+		this.freeFrames = new ArrayBlockingQueue<CapturedFrame>(POOL_SIZE);
+		this.pendingFrames = new ArrayBlockingQueue<CapturedFrame>(
+				POOL_SIZE);
+
+		// Raw frames are appended to one file, so they are written in order.
+		int workerCount = IMAGE_WORKERS;
+		if (format == Format.RAW)
+			workerCount = 1;
+
+		this.isRunning = true;
+		this.workers = new Thread[workerCount];
+		for (int i = 0; i < workerCount; i++) {
+			this.workers[i] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					writeFrames();
+				}
+			}, "Capture " + i);
+			this.workers[i].setDaemon(true);
+			this.workers[i].start();
+		}
+
+		this.logger.info("Capturing frames as " + format + " to "
+				+ directory);
+	}
+
+	/**
+	 * Copies a frame to be written. Never waits; if no buffer is free the
+	 * frame is dropped.
+	 *
+	 * @param image
+	 *            Completed frame.
+	 */
+	public void capture(final BufferedImage image) {
+		this.frameCount++;
+		if (this.width == 0)
+			allocateFrames(image.getWidth(), image.getHeight());
+		if (image.getWidth() != this.width
+				|| image.getHeight() != this.height) {
+			this.width = image.getWidth();
+			this.height = image.getHeight();
+			this.logger.info("Capture resized to " + this.width + "x"
+					+ this.height + " frames.");
+		}
+
+		CapturedFrame frame = this.freeFrames.poll();
+		if (frame == null) {
+			this.droppedCount++;
+			return;
+		}
+
+		if (frame.pixels.length != this.width * this.height)
+			frame.pixels = new int[this.width * this.height];
+		image.getRaster().getDataElements(0, 0, this.width, this.height,
+				frame.pixels);
+		frame.width = this.width;
+		frame.height = this.height;
+		frame.number = this.frameCount;
+		this.pendingFrames.offer(frame);
+	}
+
+	/**
+	 * Sets the size of the frames and fills the pool with buffers of that
+	 * size.
+	 *
+	 * @param frameWidth
+	 *            Width of the frames.
+	 * @param frameHeight
+	 *            Height of the frames.
+	 */
+	private void allocateFrames(final int frameWidth, final int frameHeight) {
+		this.width = frameWidth;
+		this.height = frameHeight;
+		for (int i = 0; i < POOL_SIZE; i++) {
+			CapturedFrame frame = new CapturedFrame();
+			frame.pixels = new int[frameWidth * frameHeight];
+			this.freeFrames.add(frame);
+		}
+		this.logger.info("Capturing " + frameWidth + "x" + frameHeight
+				+ " frames.");
+	}
+
+	/**
+	 * Writes the remaining frames and stops the workers.
+	 */
+	public void close() {
+		this.isRunning = false;
+		for (Thread worker : this.workers) {
+			try {
+				worker.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		if (this.rawOutput != null) {
+			try {
+				this.rawOutput.close();
+			} catch (IOException e) {
+				this.logger.warning("Couldn't close the capture file.");
+			}
+		}
+
+		this.logger.info("Capture finished: " + this.frameCount
+				+ " frames, " + this.writtenCount.get() + " written, "
+				+ this.droppedCount + " dropped.");
+	}
+
+	/**
+	 * Closes the raw format file being written and opens a new one for
+	 * frames of the given size. Its name holds the size, as the file has no
+	 * header. Runs on the worker thread.
+	 *
+	 * @param frameWidth
+	 *            Width of the frames.
+	 * @param frameHeight
+	 *            Height of the frames.
+	 * @throws IOException
+	 *             In case the file can not be closed or created.
+	 */
+	private void openRawOutput(final int frameWidth, final int frameHeight)
+			throws IOException {
+		OutputStream previousOutput = this.rawOutput;
+		this.rawOutput = null;
+		if (previousOutput != null)
+			previousOutput.close();
+		this.rawOutput = new BufferedOutputStream(new FileOutputStream(
+				new File(this.directory, String.format("capture%02d-%dx%d.rgb",
+						this.rawFileCount++, frameWidth, frameHeight))));
+		this.rawWidth = frameWidth;
+		this.rawHeight = frameHeight;
+	}
+
+	/**
+	 * Writes frames as they arrive, until the capture is closed and no
+	 * frames remain. Runs on the worker threads.
+	 */
+	private void writeFrames() {
+		BufferedImage image = null;
+		byte[] rgb = null;
+
+		while (true) {
+			CapturedFrame frame;
+			try {
+				frame = this.pendingFrames.poll(POLL_TIME,
+						TimeUnit.MILLISECONDS);
+			} catch (InterruptedException e) {
+				return;
+			}
+			if (frame == null) {
+				if (!this.isRunning)
+					return;
+				continue;
+			}
+
+			// Buffers are only replaced when the size of the frames changes.
+			if (this.format == Format.PNG && (image == null
+					|| image.getWidth() != frame.width
+					|| image.getHeight() != frame.height))
+				image = new BufferedImage(frame.width, frame.height,
+						BufferedImage.TYPE_INT_RGB);
+			else if (this.format == Format.RAW && (rgb == null
+					|| rgb.length != frame.width * frame.height * 3))
+				rgb = new byte[frame.width * frame.height * 3];
+
+			try {
+				if (this.format == Format.PNG) {
+					image.getRaster().setDataElements(0, 0, frame.width,
+							frame.height, frame.pixels);
+					ImageIO.write(image, "png", new File(this.directory,
+							String.format("frame%06d.png", frame.number)));
+				} else {
+					if (this.rawOutput == null || frame.width != this.rawWidth
+							|| frame.height != this.rawHeight)
+						openRawOutput(frame.width, frame.height);
+					for (int i = 0; i < frame.width * frame.height; i++) {
+						rgb[i * 3] = (byte) (frame.pixels[i] >> 16);
+						rgb[i * 3 + 1] = (byte) (frame.pixels[i] >> 8);
+						rgb[i * 3 + 2] = (byte) frame.pixels[i];
+					}
+					this.rawOutput.write(rgb);
+				}
+				this.writtenCount.incrementAndGet();
+			} catch (IOException e) {
+				this.logger.warning("Couldn't write frame " + frame.number);
+			} finally {
+				this.freeFrames.offer(frame);
+			}
+		}
+	}
+}
@@ -0,0 +1,121 @@
+package engine;
+
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Logger;
+
+/**
+ * Waits until the start of each frame with little jitter. Most of the wait
+ * is slept, and the last stretch, as long as the usual oversleep, is spent
+ * spinning. The margin adapts to the oversleep measured on each frame.
+ *
+ * @author <a href="mailto:RobertoIA1987@gmail.com">Roberto Izquierdo Amo</a>
+ *
+ */
+public final class FramePacer {
+
+	/** Smallest time spent spinning, in nanoseconds. */
+	private static final long MIN_MARGIN = 200000;
+	/** Largest time spent spinning, in nanoseconds. */
+	private static final long MAX_MARGIN = 4000000;
+	/** Fraction of the difference the margin shrinks by on each frame. */
+	private static final int MARGIN_DECAY = 16;
+	/** Nanoseconds in a microsecond. */
+	private static final double NANOS_PER_MICROSECOND = 1000.0;
+
+	/** Expected time between frames, in nanoseconds. */
+	private long frameTime;
+	/** Time left for spinning before a deadline, in nanoseconds. */
+	private long margin;
+	/** Time the last wait finished at, 0 if none. */
+	private long lastFrameTime;
+	/** Distance of each frame interval from the expected one. */
+	private LatencyHistogram jitter;
+	/** Sum of the measured frame intervals. */
+	private long totalInterval;
+	/** Number of measured frame intervals. */
+	private long intervals;
+
+	/**
+	 * Constructor, establishes the expected frame interval.
+	 *
+	 * @param frameTime
+	 *            Expected time between frames, in nanoseconds.
+	 */
+	public FramePacer(final long frameTime) {
+		this.frameTime = frameTime;
+		this.margin = MIN_MARGIN * 5;
+		this.jitter = new LatencyHistogram();
+	}
+
+	/**
+	 * Waits until the given time.
+	 *
+	 * @param deadline
+	 *            Time to wake at, as given by System.nanoTime.
+	 */
+	public void waitUntil(final long deadline) {
+		long sleepTime = deadline - System.nanoTime() - this.margin;
+		if (sleepTime > 0) {
+			long wakeTarget = System.nanoTime() + sleepTime;
+			LockSupport.parkNanos(sleepTime);
+			adaptMargin(System.nanoTime() - wakeTarget);
+		}
+
+		while (System.nanoTime() < deadline)
+			Thread.onSpinWait();
+
+		long time = System.nanoTime();
+		if (this.lastFrameTime != 0) {
+			long interval = time - this.lastFrameTime;
+			this.jitter.record(Math.abs(interval - this.frameTime));
+			this.totalInterval += interval;
+			this.intervals++;
+		}
+		this.lastFrameTime = time;
+	}
+
+	/**
+	 * Forgets the last frame, so the time until the next one is not counted
+	 * as a frame interval. Used when the caller could not keep up.
+	 */
+	public void skipFrame() {
+		this.lastFrameTime = 0;
+	}
+
+	/**
+	 * Logs the achieved frame interval and its jitter.
+	 *
+	 * @param logger
+	 *            Logger to write to.
+	 * @param title
+	 *            Name of what was paced.
+	 */
+	public void report(final Logger logger, final String title) {
+		if (this.intervals == 0)
+			return;
+		logger.info(String.format("%s frame pacing: mean interval %.1f us, "
+				+ "jitter p50 %.1f us, p99 %.1f us, max %.1f us, "
+				+ "spin margin %.1f us.", title,
+				this.totalInterval / (double) this.intervals
+						/ NANOS_PER_MICROSECOND,
+				this.jitter.getPercentile(0.5) / NANOS_PER_MICROSECOND,
+				this.jitter.getPercentile(0.99) / NANOS_PER_MICROSECOND,
+				this.jitter.getMax() / NANOS_PER_MICROSECOND,
+				this.margin / NANOS_PER_MICROSECOND));
+	}
+
+	/**
+	 * Adjusts the margin to a measured oversleep. Grows at once when the
+	 * oversleep is larger, and shrinks slowly when it is smaller.
+	 *
+	 * @param oversleep
+	 *            Time slept past the requested one, in nanoseconds.
+	 */
+	private void adaptMargin(final long oversleep) {
+		if (oversleep > this.margin)
+			this.margin = oversleep;
+		else
+			this.margin -= (this.margin - oversleep) / MARGIN_DECAY;
+		this.margin = Math.max(MIN_MARGIN, Math.min(MAX_MARGIN, this.margin));
+	}
+}
@@ -0,0 +1,120 @@
+package engine;
+
+import java.util.logging.Logger;
+
+/**
+ * Measures how long each phase of a game frame takes. When disabled, every
+ * call returns at once without reading the clock.
+ *
+ * @author <a href="mailto:RobertoIA1987@gmail.com">Roberto Izquierdo Amo</a>
+ *
+ */
+public final class FrameProfiler {
+
+	/** Nanoseconds in a microsecond. */
+	private static final double NANOS_PER_MICROSECOND = 1000.0;
+
+	/** Measured phases of a frame. */
+	public static enum Phase {
+		/** Player input and bonus ship handling. */
+		INPUT,
+		/** Enemy formation movement and shooting. */
+		FORMATION,
+		/** Collision checks. */
+		COLLISIONS,
+		/** Bullet movement and removal. */
+		CLEAN_BULLETS,
+		/** Drawing of the frame. */
+		DRAW,
+		/** Showing the drawn frame. */
+		COMPLETE_DRAWING
+	};
+
+	/** Phases, by ordinal. */
+	private static final Phase[] PHASES = Phase.values();
+
+	/** Checks if the phases are measured. */
+	private final boolean isEnabled;
+	/** Durations of each phase. */
+	private LatencyHistogram[] histograms;
+
+	/**
+	 * Constructor, allocates the histograms if enabled.
+	 *
+	 * @param enabled
+	 *            If the phases are measured.
+	 */
+	public FrameProfiler(final boolean enabled) {
+		this.isEnabled = enabled;
+		if (enabled) {
+			this.histograms = new LatencyHistogram[PHASES.length];
+			for (int i = 0; i < PHASES.length; i++)
+				this.histograms[i] = new LatencyHistogram();
+		}
+	}
+
+	/**
+	 * Checks if the phases are measured.
+	 *
+	 * @return True if enabled.
+	 */
+	public boolean isEnabled() {
+		return this.isEnabled;
+	}
+
+	/**
+	 * Marks the start of a phase.
+	 *
+	 * @return Current time in nanoseconds, 0 if disabled.
+	 */
+	public long start() {
+		if (!this.isEnabled)
+			return 0;
+		return System.nanoTime();
+	}
+
+	/**
+	 * Records the end of a phase, which is also the start of the next one.
+	 *
+	 * @param phase
+	 *            Phase that ended.
+	 * @param startTime
+	 *            Time the phase started at.
+	 * @return Current time in nanoseconds, 0 if disabled.
+	 */
+	public long record(final Phase phase, final long startTime) {
+		if (!this.isEnabled)
+			return 0;
+		long time = System.nanoTime();
+		this.histograms[phase.ordinal()].record(time - startTime);
+		return time;
+	}
+
+	/**
+	 * Logs the percentiles of each phase and starts measuring again.
+	 *
+	 * @param logger
+	 *            Logger to write to.
+	 * @param title
+	 *            Name of what was measured.
+	 */
+	public void dump(final Logger logger, final String title) {
+		if (!this.isEnabled)
+			return;
+
+		StringBuilder report = new StringBuilder(title)
+				.append(" frame timing in microseconds (p50/p99/p999/max):");
+		for (int i = 0; i < PHASES.length; i++) {
+			LatencyHistogram histogram = this.histograms[i];
+			report.append(String.format("%n  %-16s %9.1f %9.1f %9.1f %9.1f"
+					+ "  (%d samples)", PHASES[i],
+					histogram.getPercentile(0.5) / NANOS_PER_MICROSECOND,
+					histogram.getPercentile(0.99) / NANOS_PER_MICROSECOND,
+					histogram.getPercentile(0.999) / NANOS_PER_MICROSECOND,
+					histogram.getMax() / NANOS_PER_MICROSECOND,
+					histogram.getCount()));
+			histogram.reset();
+		}
+		logger.info(report.toString());
+	}
+}
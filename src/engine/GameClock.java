@@ -0,0 +1,23 @@
+package engine;
+
+/**
+ * Source of the game time, read by the cooldowns.
+ * 
+ * @author <a href="mailto:RobertoIA1987@gmail.com">Roberto Izquierdo Amo</a>
+ * 
+ */
+public interface GameClock {
+
+	/**
+	 * Returns the current game time.
+	 * 
+	 * @return Game time in milliseconds.
+	 */
+	long getTime();
+
+	/**
+	 * Marks the end of a simulation step. Clocks following the real time
+	 * ignore it.
+	 */
+	void tick();
+}
@@ -0,0 +1,270 @@
+package engine;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps the printable characters of a font pre-rendered in a single image,
+ * so text can be drawn by copying glyphs instead of laying out strings.
+ *
+ * @author <a href="mailto:RobertoIA1987@gmail.com">Roberto Izquierdo Amo</a>
+ *
+ */
+public final class GlyphAtlas {
+
+	/** First character in the atlas. */
+	private static final char FIRST_CHAR = ' ';
+	/** Last character in the atlas. */
+	private static final char LAST_CHAR = '~';
+	/** Character drawn in place of the ones not in the atlas. */
+	private static final char UNKNOWN_CHAR = '?';
+	/** Space around each glyph, for the parts drawn outside its advance. */
+	private static final int PADDING = 4;
+
+	/** Glyphs rendered in white. */
+	private BufferedImage glyphs;
+	/** Glyphs rendered in each color used so far. */
+	private Map<Color, BufferedImage> coloredGlyphs;
+	/** Screen pixels for each logical pixel. */
+	private int scale;
+	/** Horizontal position of each glyph in the atlas. */
+	private int[] offsets;
+	/** Advance of each character, in logical pixels. */
+	private int[] advances;
+	/** Width of each glyph in the atlas, without padding. */
+	private int[] glyphWidths;
+	/** Distance from the top of the atlas to the baseline. */
+	private int ascent;
+	/** Height of the atlas. */
+	private int cellHeight;
+	/** Standard height of a line of text. */
+	private int height;
+
+	/**
+	 * Constructor, renders the glyphs of a font.
+	 *
+	 * @param font
+	 *            Font to render.
+	 */
+	public GlyphAtlas(final Font font) {
+		this(font, 1);
+	}
+
+	/**
+	 * Constructor, renders the glyphs of a font at a larger scale. Text is
+	 * still measured and positioned in logical pixels, so it is laid out the
+	 * same at every scale.
+	 *
+	 * @param font
+	 *            Font to render.
+	 * @param scale
+	 *            Screen pixels for each logical pixel.
+	 */
+	public GlyphAtlas(final Font font, final int scale) {
+		int charCount = LAST_CHAR - FIRST_CHAR + 1;
+		this.scale = scale;
+		this.offsets = new int[charCount];
+		this.advances = new int[charCount];
+		this.glyphWidths = new int[charCount];
+		this.coloredGlyphs = new HashMap<Color, BufferedImage>();
+
+		Font scaledFont = font;
+		if (scale != 1)
+			scaledFont = font.deriveFont(font.getSize2D() * scale);
+
+		BufferedImage scratch = new BufferedImage(1, 1,
+				BufferedImage.TYPE_INT_ARGB);
+		Graphics scratchGraphics = scratch.getGraphics();
+		FontMetrics metrics = scratchGraphics.getFontMetrics(font);
+		FontMetrics scaledMetrics = scratchGraphics
+				.getFontMetrics(scaledFont);
+		scratchGraphics.dispose();
+
+		int atlasWidth = 0;
+		for (int i = 0; i < charCount; i++) {
+			char c = (char) (FIRST_CHAR + i);
+			this.offsets[i] = atlasWidth + PADDING;
+			this.advances[i] = metrics.charWidth(c);
+			this.glyphWidths[i] = scaledMetrics.charWidth(c);
+			atlasWidth += this.glyphWidths[i] + PADDING * 2;
+		}
+		this.ascent = scaledMetrics.getMaxAscent() + PADDING;
+		this.cellHeight = this.ascent + scaledMetrics.getMaxDescent()
+				+ PADDING;
+		this.height = metrics.getHeight();
+
+		this.glyphs = SpriteCache.createImage(atlasWidth, this.cellHeight);
+		Graphics graphics = this.glyphs.getGraphics();
+		graphics.setFont(scaledFont);
+		graphics.setColor(Color.WHITE);
+		char[] glyph = new char[1];
+		for (int i = 0; i < charCount; i++) {
+			glyph[0] = (char) (FIRST_CHAR + i);
+			graphics.drawChars(glyph, 0, 1, this.offsets[i], this.ascent);
+		}
+		graphics.dispose();
+	}
+
+	/**
+	 * Getter for the standard height of a line of text.
+	 *
+	 * @return Height of a line.
+	 */
+	public int getHeight() {
+		return this.height;
+	}
+
+	/**
+	 * Returns the advance of a character.
+	 *
+	 * @param c
+	 *            Character to measure.
+	 * @return Width of the character.
+	 */
+	public int charWidth(final char c) {
+		return this.advances[index(c)];
+	}
+
+	/**
+	 * Returns the width of a string.
+	 *
+	 * @param string
+	 *            String to measure.
+	 * @return Width of the string.
+	 */
+	public int stringWidth(final String string) {
+		int width = 0;
+		for (int i = 0; i < string.length(); i++)
+			width += charWidth(string.charAt(i));
+		return width;
+	}
+
+	/**
+	 * Returns the width of the text in a buffer.
+	 *
+	 * @param text
+	 *            Text to measure.
+	 * @return Width of the text.
+	 */
+	public int textWidth(final TextBuffer text) {
+		int width = 0;
+		for (int i = 0; i < text.length(); i++)
+			width += charWidth(text.getChars()[i]);
+		return width;
+	}
+
+	/**
+	 * Draws a character. The graphics context works in screen pixels, the
+	 * position is given in logical pixels.
+	 *
+	 * @param graphics
+	 *            Graphics context to draw on.
+	 * @param c
+	 *            Character to draw.
+	 * @param positionX
+	 *            Coordinates for the left side of the character.
+	 * @param positionY
+	 *            Coordinates for the baseline of the character.
+	 * @param color
+	 *            Color of the character.
+	 * @return Advance of the character.
+	 */
+	public int drawChar(final Graphics graphics, final char c,
+			final int positionX, final int positionY, final Color color) {
+		int index = index(c);
+		int sourceX = this.offsets[index] - PADDING;
+		int cellWidth = this.glyphWidths[index] + PADDING * 2;
+		int targetX = positionX * this.scale - PADDING;
+		int targetY = positionY * this.scale - this.ascent;
+
+		graphics.drawImage(getGlyphs(color), targetX, targetY, targetX
+				+ cellWidth, targetY + this.cellHeight, sourceX, 0, sourceX
+				+ cellWidth, this.cellHeight, null);
+		return this.advances[index];
+	}
+
+	/**
+	 * Draws a string.
+	 *
+	 * @param graphics
+	 *            Graphics context to draw on.
+	 * @param string
+	 *            String to draw.
+	 * @param positionX
+	 *            Coordinates for the left side of the string.
+	 * @param positionY
+	 *            Coordinates for the baseline of the string.
+	 * @param color
+	 *            Color of the string.
+	 */
+	public void drawString(final Graphics graphics, final String string,
+			final int positionX, final int positionY, final Color color) {
+		int x = positionX;
+		for (int i = 0; i < string.length(); i++)
+			x += drawChar(graphics, string.charAt(i), x, positionY, color);
+	}
+
+	/**
+	 * Draws the text in a buffer.
+	 *
+	 * @param graphics
+	 *            Graphics context to draw on.
+	 * @param text
+	 *            Text to draw.
+	 * @param positionX
+	 *            Coordinates for the left side of the text.
+	 * @param positionY
+	 *            Coordinates for the baseline of the text.
+	 * @param color
+	 *            Color of the text.
+	 */
+	public void drawText(final Graphics graphics, final TextBuffer text,
+			final int positionX, final int positionY, final Color color) {
+		int x = positionX;
+		for (int i = 0; i < text.length(); i++)
+			x += drawChar(graphics, text.getChars()[i], x, positionY, color);
+	}
+
+	/**
+	 * Returns the atlas in a given color, creating it the first time it is
+	 * requested.
+	 *
+	 * @param color
+	 *            Color of the glyphs.
+	 * @return Atlas image.
+	 */
+	private BufferedImage getGlyphs(final Color color) {
+		BufferedImage image = this.coloredGlyphs.get(color);
+		if (image == null) {
+			image = SpriteCache.createImage(this.glyphs.getWidth(),
+					this.glyphs.getHeight());
+			int rgb = color.getRGB() & 0xFFFFFF;
+			for (int x = 0; x < this.glyphs.getWidth(); x++)
+				for (int y = 0; y < this.glyphs.getHeight(); y++) {
+					int alpha = this.glyphs.getRGB(x, y) & 0xFF000000;
+					if (alpha != 0)
+						image.setRGB(x, y, alpha | rgb);
+				}
+			this.coloredGlyphs.put(color, image);
+		}
+		return image;
+	}
+
+	/**
+	 * Returns the position in the atlas of a character.
+	 *
+	 * @param c
+	 *            Character to find.
+	 * @return Index of the glyph.
+	 */
+	private static int index(final char c) {
+		if (c < FIRST_CHAR || c > LAST_CHAR)
+			return UNKNOWN_CHAR - FIRST_CHAR;
+		return c - FIRST_CHAR;
+	}
+}
@@ -17,6 +17,8 @@ public final class InputManager implements KeyListener {
 	private static boolean[] keys;
 	/** Singleton instance of the class. */
 	private static InputManager instance;
+	/** Number of key events received, guarded by the instance. */
+	private long eventCount;
 
 	/**
 	 * Private constructor.
@@ -47,6 +49,60 @@ public final class InputManager implements KeyListener {
 		return keys[keyCode];
 	}
 
+	/**
+	 * Returns the number of key events received so far.
+	 * 
+	 * @return Number of key events.
+	 */
+	public synchronized long getEventCount() {
+		return this.eventCount;
+	}
+
+	/**
+	 * Waits until a key event arrives or the time runs out.
+	 * 
+	 * @param lastEventCount
+	 *            Event count already handled, returns at once if more
+	 *            events have arrived since.
+	 * @param timeout
+	 *            Longest time to wait, in milliseconds.
+	 */
+	public synchronized void waitForEvent(final long lastEventCount,
+			final long timeout) {
+		long deadline = System.nanoTime() + timeout * 1000000L;
+		try {
+			while (this.eventCount == lastEventCount) {
+				long remaining = deadline - System.nanoTime();
+				if (remaining <= 0)
+					return;
+				wait(remaining / 1000000L, (int) (remaining % 1000000L));
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Counts a key event and wakes the threads waiting for one.
+	 */
+	private synchronized void signalEvent() {
+		this.eventCount++;
+		notifyAll();
+	}
+
+	/**
+	 * Changes the state of a key without a key event, for input that does
+	 * not come from the keyboard.
+	 * 
+	 * @param keyCode
+	 *            Key number to change.
+	 * @param isDown
+	 *            New key state.
+	 */
+	void setKeyDown(final int keyCode, final boolean isDown) {
+		keys[keyCode] = isDown;
+	}
+
 	/**
 	 * Changes the state of the key to pressed.
 	 * 
@@ -57,6 +113,7 @@ public final class InputManager implements KeyListener {
 	public void keyPressed(final KeyEvent key) {
 		if (key.getKeyCode() >= 0 && key.getKeyCode() < NUM_KEYS)
 			keys[key.getKeyCode()] = true;
+		signalEvent();
 	}
 
 	/**
@@ -69,6 +126,7 @@ public final class InputManager implements KeyListener {
 	public void keyReleased(final KeyEvent key) {
 		if (key.getKeyCode() >= 0 && key.getKeyCode() < NUM_KEYS)
 			keys[key.getKeyCode()] = false;
+		signalEvent();
 	}
 
 	/**
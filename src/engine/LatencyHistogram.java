@@ -0,0 +1,138 @@
+package engine;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts durations in logarithmic buckets, eight for each power of two, so
+ * percentiles are known within a 12.5% error. Recording takes no locks and
+ * allocates nothing, so it can be done from any thread.
+ *
+ * @author <a href="mailto:RobertoIA1987@gmail.com">Roberto Izquierdo Amo</a>
+ *
+ */
+public final class LatencyHistogram {
+
+	/** Bits of the value used to choose the bucket within a power of two. */
+	private static final int SUB_BUCKET_BITS = 3;
+	/** Buckets for each power of two. */
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	/** Total number of buckets, enough for any positive long. */
+	private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+	/** Number of values in each bucket. */
+	private AtomicLongArray counts;
+	/** Largest value recorded. */
+	private AtomicLong max;
+
+	/**
+	 * Constructor, allocates the buckets.
+	 */
+	public LatencyHistogram() {
+		this.counts = new AtomicLongArray(BUCKETS);
+		this.max = new AtomicLong();
+	}
+
+	/**
+	 * Records a value.
+	 *
+	 * @param value
+	 *            Duration to record, negative values count as 0.
+	 */
+	public void record(final long value) {
+		long positive = Math.max(0, value);
+		this.counts.incrementAndGet(bucket(positive));
+
+		long currentMax = this.max.get();
+		while (positive > currentMax
+				&& !this.max.compareAndSet(currentMax, positive))
+			currentMax = this.max.get();
+	}
+
+	/**
+	 * Returns the number of values recorded.
+	 *
+	 * @return Number of values.
+	 */
+	public long getCount() {
+		long count = 0;
+		for (int i = 0; i < BUCKETS; i++)
+			count += this.counts.get(i);
+		return count;
+	}
+
+	/**
+	 * Returns the largest value recorded.
+	 *
+	 * @return Largest value, 0 if none.
+	 */
+	public long getMax() {
+		return this.max.get();
+	}
+
+	/**
+	 * Returns a value at least as large as the given fraction of the
+	 * recorded values.
+	 *
+	 * @param percentile
+	 *            Fraction of the values, between 0 and 1.
+	 * @return Upper bound of the bucket holding the percentile, 0 if no
+	 *         values were recorded.
+	 */
+	public long getPercentile(final double percentile) {
+		long count = getCount();
+		if (count == 0)
+			return 0;
+
+		long target = Math.max(1, (long) Math.ceil(count * percentile));
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += this.counts.get(i);
+			if (seen >= target)
+				return Math.min(upperBound(i), getMax());
+		}
+		return getMax();
+	}
+
+	/**
+	 * Removes every recorded value.
+	 */
+	public void reset() {
+		for (int i = 0; i < BUCKETS; i++)
+			this.counts.set(i, 0);
+		this.max.set(0);
+	}
+
+	/**
+	 * Returns the bucket a value falls in.
+	 *
+	 * @param value
+	 *            Positive value.
+	 * @return Index of the bucket.
+	 */
+	private static int bucket(final long value) {
+		if (value < SUB_BUCKETS)
+			return (int) value;
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS))
+				& (SUB_BUCKETS - 1);
+		return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+	}
+
+	/**
+	 * Returns the largest value that falls in a bucket.
+	 *
+	 * @param bucket
+	 *            Index of the bucket.
+	 * @return Upper bound of the bucket.
+	 */
+	private static long upperBound(final int bucket) {
+		if (bucket < SUB_BUCKETS)
+			return bucket;
+		int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+		long subBucket = bucket % SUB_BUCKETS;
+		int shift = exponent - SUB_BUCKET_BITS;
+		// The last bucket overflows to Long.MAX_VALUE, as it should.
+		return ((SUB_BUCKETS + subBucket + 1) << shift) - 1;
+	}
+}
@@ -1,8 +1,8 @@
 package engine;
 
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.logging.Formatter;
 import java.util.logging.LogRecord;
 
@@ -14,8 +14,9 @@ import java.util.logging.LogRecord;
  */
 public class MinimalFormatter extends Formatter {
 
-	/** Format for the date. */
-	private static final DateFormat FORMAT = new SimpleDateFormat("h:mm:ss");
+	/** Format for the date, safe to share between threads. */
+	private static final DateTimeFormatter FORMAT = DateTimeFormatter
+			.ofPattern("h:mm:ss").withZone(ZoneId.systemDefault());
 	/** System line separator. */
 	private static final String LINE_SEPARATOR = System
 			.getProperty("line.separator");
@@ -25,8 +26,9 @@ public class MinimalFormatter extends Formatter {
 
 		StringBuilder output = new StringBuilder().append("[")
 				.append(logRecord.getLevel()).append('|')
-				.append(FORMAT.format(new Date(logRecord.getMillis())))
-				.append("]: ").append(logRecord.getMessage()).append(' ')
+				.append(FORMAT.format(Instant.ofEpochMilli(logRecord
+						.getMillis())))
+				.append("]: ").append(formatMessage(logRecord)).append(' ')
 				.append(LINE_SEPARATOR);
 
 		return output.toString();
@@ -0,0 +1,117 @@
+package engine;
+
+import java.awt.Color;
+import java.util.List;
+
+import screen.Screen;
+import entity.Entity;
+
+/**
+ * Implements a drawing manager that draws nothing, so screens can run
+ * without a display and as fast as possible.
+ * 
+ * @author <a href="mailto:RobertoIA1987@gmail.com">Roberto Izquierdo Amo</a>
+ * 
+ */
+public final class NoOpDrawManager implements DrawManager {
+
+	/**
+	 * Constructor, nothing to load.
+	 */
+	NoOpDrawManager() {
+
+	}
+
+	@Override
+	public void initDrawing(final Screen screen) {
+	}
+
+	@Override
+	public void initDrawing(final Screen screen,
+			final DirtyRegion dirtyRegion) {
+	}
+
+	@Override
+	public boolean needsFullRedraw() {
+		return false;
+	}
+
+	@Override
+	public void completeDrawing(final Screen screen) {
+	}
+
+	@Override
+	public void completeDrawing(final Screen screen,
+			final DirtyRegion dirtyRegion) {
+	}
+
+	@Override
+	public void drawEntity(final Entity entity, final int positionX,
+			final int positionY) {
+	}
+
+	@Override
+	public void drawSprite(final SpriteType spriteType, final Color color,
+			final int positionX, final int positionY) {
+	}
+
+	@Override
+	public void drawScore(final Screen screen, final int score) {
+	}
+
+	@Override
+	public void drawLives(final Screen screen, final int lives) {
+	}
+
+	@Override
+	public void drawHorizontalLine(final Screen screen, final int positionY) {
+	}
+
+	@Override
+	public void drawTitle(final Screen screen) {
+	}
+
+	@Override
+	public void drawMenu(final Screen screen, final int option) {
+	}
+
+	@Override
+	public void drawResults(final Screen screen, final int score,
+			final int livesRemaining, final int shipsDestroyed,
+			final float accuracy, final boolean isNewRecord) {
+	}
+
+	@Override
+	public void drawNameInput(final Screen screen, final char[] name,
+			final int nameCharSelected) {
+	}
+
+	@Override
+	public void drawGameOver(final Screen screen, final boolean acceptsInput,
+			final boolean isNewRecord) {
+	}
+
+	@Override
+	public void drawHighScoreMenu(final Screen screen) {
+	}
+
+	@Override
+	public void drawHighScores(final Screen screen,
+			final List<Score> highScores) {
+	}
+
+	@Override
+	public void drawCenteredRegularString(final Screen screen,
+			final String string, final int height) {
+	}
+
+	@Override
+	public void drawCenteredBigString(final Screen screen, final String string,
+			final int height) {
+	}
+
+	@Override
+	public void drawCountDown(final Screen screen, final int level,
+			final int number, final boolean bonusLife) {
+	}
+}
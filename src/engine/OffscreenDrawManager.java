@@ -0,0 +1,787 @@
+package engine;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontFormatException;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+import screen.Screen;
+import entity.Entity;
+import entity.Ship;
+
+/**
+ * Manages screen drawing on an image kept in memory, without showing it.
+ * 
+ * @author <a href="mailto:RobertoIA1987@gmail.com">Roberto Izquierdo Amo</a>
+ * 
+ */
+public class OffscreenDrawManager implements DrawManager {
+
+	/** Screen pixels for each sprite pixel, at a pixel scale of 1. */
+	private static final int SPRITE_SCALE = 2;
+
+	/** FileManager instance. */
+	private FileManager fileManager;
+	/** Application logger. */
+	private Logger logger;
+	/** Buffer Graphics, in logical pixels. */
+	private Graphics backBufferGraphics;
+	/** Graphics context of the back buffer, in buffer pixels. */
+	private Graphics pixelGraphics;
+	/** Buffer pixels for each logical pixel. */
+	private int pixelScale;
+	/** Buffer image. */
+	private BufferedImage backBuffer;
+	/** Normal sized font. */
+	private Font fontRegular;
+	/** Normal sized font glyphs. */
+	private GlyphAtlas fontRegularGlyphs;
+	/** Big sized font. */
+	private Font fontBig;
+	/** Big sized font glyphs. */
+	private GlyphAtlas fontBigGlyphs;
+	/** Reusable buffer to compose text. */
+	private TextBuffer textBuffer;
+	/** Ship drawn as the icon of each life. */
+	private Ship lifeIcon;
+
+	/** Sprite types mapped to their images. */
+	private Map<SpriteType, boolean[][]> spriteMap;
+	/** Rasterized sprites, ready to be drawn. */
+	private SpriteCache spriteCache;
+	/** Software renderer, writes sprites directly to the buffer. */
+	private RasterRenderer rasterRenderer;
+	/** Checks if sprites are drawn by the software renderer. */
+	private boolean rasterRendering;
+	/** Sprite draws of the frame waiting to be submitted. */
+	private DrawCommandList drawCommands;
+	/** Records the completed frames, null if not capturing. */
+	private FrameCapture frameCapture;
+
+	/**
+	 * Constructor, loads the sprites and fonts.
+	 */
+	OffscreenDrawManager() {
+		fileManager = Core.getFileManager();
+		logger = Core.getLogger();
+		logger.info("Started loading resources.");
+
+		try {
+			spriteMap = fileManager.createSpriteMap();
+
+			pixelScale = 1;
+			spriteCache = new SpriteCache(spriteMap, SPRITE_SCALE);
+			rasterRenderer = new RasterRenderer(SPRITE_SCALE);
+			drawCommands = new DrawCommandList();
+			loadSprites();
+
+			// Font loading.
+			fontRegular = fileManager.loadFont(14f);
+			fontBig = fileManager.loadFont(24f);
+			fontRegularGlyphs = new GlyphAtlas(fontRegular);
+			fontBigGlyphs = new GlyphAtlas(fontBig);
+			textBuffer = new TextBuffer();
+			logger.info("Finished loading the fonts.");
+
+		} catch (IOException e) {
+			logger.warning("Loading failed.");
+		} catch (FontFormatException e) {
+			logger.warning("Font formating failed.");
+		}
+	}
+
+	/**
+	 * Loads the sprites from disk, discarding the previously rasterized
+	 * images.
+	 * 
+	 * @throws IOException
+	 *             In case of loading problems.
+	 */
+	public void loadSprites() throws IOException {
+		fileManager.loadSprite(spriteMap);
+		spriteCache.clear();
+		rasterRenderer.setSprites(spriteMap);
+		logger.info("Finished loading the sprites.");
+	}
+
+	/**
+	 * Selects how sprites are drawn, either as images through Java2D or
+	 * written directly to the buffer pixels. Text is always drawn through
+	 * Java2D.
+	 * 
+	 * @param raster
+	 *            True to use the software renderer.
+	 */
+	public void setRasterRendering(final boolean raster) {
+		rasterRendering = raster;
+		backBuffer = null;
+	}
+
+	/**
+	 * Sets how many buffer pixels are used for each logical pixel. Sprites
+	 * and glyphs are rasterized again at the new scale, and the buffer is
+	 * recreated on the next drawing, which has to be a full one.
+	 * 
+	 * @param scale
+	 *            Buffer pixels for each logical pixel, at least 1.
+	 */
+	public void setPixelScale(final int scale) {
+		if (scale == pixelScale || scale < 1)
+			return;
+		pixelScale = scale;
+
+		spriteCache = new SpriteCache(spriteMap, SPRITE_SCALE * scale);
+		rasterRenderer = new RasterRenderer(SPRITE_SCALE * scale);
+		rasterRenderer.setSprites(spriteMap);
+		fontRegularGlyphs = new GlyphAtlas(fontRegular, scale);
+		fontBigGlyphs = new GlyphAtlas(fontBig, scale);
+		backBuffer = null;
+		logger.info("Rebuilt sprites and glyphs at " + scale + "x scale.");
+	}
+
+	/**
+	 * Getter for the pixel scale.
+	 * 
+	 * @return Buffer pixels for each logical pixel.
+	 */
+	protected final int getPixelScale() {
+		return pixelScale;
+	}
+
+	/**
+	 * Checks if the previous drawing was lost, so the next one has to be a
+	 * full one.
+	 * 
+	 * @return True if the buffer has to be drawn whole.
+	 */
+	@Override
+	public boolean needsFullRedraw() {
+		return backBuffer == null;
+	}
+
+	/**
+	 * Sets where the completed frames are recorded.
+	 * 
+	 * @param capture
+	 *            Frame recorder, null to stop recording.
+	 */
+	public void setFrameCapture(final FrameCapture capture) {
+		frameCapture = capture;
+	}
+
+	/**
+	 * Submits the pending sprite draws and hands the completed frame to the
+	 * frame recorder, if any.
+	 */
+	protected final void finishFrame() {
+		flushSprites();
+		if (frameCapture != null && backBuffer != null)
+			frameCapture.capture(backBuffer);
+	}
+
+	/**
+	 * First part of the drawing process. Initialices buffers, draws the
+	 * background and prepares the images.
+	 * 
+	 * @param screen
+	 *            Screen to draw in.
+	 */
+	@Override
+	public void initDrawing(final Screen screen) {
+		prepareBuffer(screen);
+		drawCommands.clear();
+
+		if (rasterRendering) {
+			rasterRenderer.clear(Color.BLACK.getRGB());
+		} else {
+			backBufferGraphics.setColor(Color.BLACK);
+			backBufferGraphics.fillRect(0, 0, screen.getWidth(),
+					screen.getHeight());
+		}
+
+		// drawBorders(screen);
+		// drawGrid(screen);
+	}
+
+	/**
+	 * First part of the incremental drawing process. Keeps the previous
+	 * frame and only clears the areas that changed.
+	 * 
+	 * @param screen
+	 *            Screen to draw in.
+	 * @param dirtyRegion
+	 *            Areas of the screen that changed.
+	 */
+	@Override
+	public void initDrawing(final Screen screen,
+			final DirtyRegion dirtyRegion) {
+		if (dirtyRegion.isFull() || backBuffer == null) {
+			initDrawing(screen);
+			return;
+		}
+		prepareBuffer(screen);
+		drawCommands.clear();
+
+		backBufferGraphics.setColor(Color.BLACK);
+		for (int i = 0; i < dirtyRegion.getCount(); i++)
+			backBufferGraphics.fillRect(dirtyRegion.getPositionX(i),
+					dirtyRegion.getPositionY(i), dirtyRegion.getWidth(i),
+					dirtyRegion.getHeight(i));
+	}
+
+	/**
+	 * Creates the buffer if there is none of the size of the screen.
+	 * 
+	 * @param screen
+	 *            Screen to draw in.
+	 */
+	private void prepareBuffer(final Screen screen) {
+		int width = screen.getWidth() * pixelScale;
+		int height = screen.getHeight() * pixelScale;
+
+		// The buffer is kept between frames and screens of the same size.
+		if (backBuffer == null || backBuffer.getWidth() != width
+				|| backBuffer.getHeight() != height) {
+			if (backBufferGraphics != null) {
+				backBufferGraphics.dispose();
+				pixelGraphics.dispose();
+			}
+			backBuffer = new BufferedImage(width, height,
+					BufferedImage.TYPE_INT_RGB);
+			backBufferGraphics = backBuffer.getGraphics();
+			pixelGraphics = backBuffer.getGraphics();
+			// Integer scales keep rectangles and lines sharp.
+			((Graphics2D) backBufferGraphics).scale(pixelScale, pixelScale);
+
+			if (rasterRendering)
+				rasterRenderer.setTarget(backBuffer);
+		}
+	}
+
+	/**
+	 * Finishes the drawing. The image is only kept in memory.
+	 * 
+	 * @param screen
+	 *            Screen to draw on.
+	 */
+	@Override
+	public void completeDrawing(final Screen screen) {
+		finishFrame();
+	}
+
+	/**
+	 * Finishes the incremental drawing. The image is only kept in memory.
+	 * 
+	 * @param screen
+	 *            Screen to draw on.
+	 * @param dirtyRegion
+	 *            Areas of the screen that changed.
+	 */
+	@Override
+	public void completeDrawing(final Screen screen,
+			final DirtyRegion dirtyRegion) {
+		finishFrame();
+	}
+
+	/**
+	 * Getter for the image being drawn on.
+	 * 
+	 * @return Buffer image, null until the first drawing starts.
+	 */
+	public final BufferedImage getImage() {
+		return backBuffer;
+	}
+
+	/**
+	 * Draws an entity, using the apropiate image.
+	 * 
+	 * @param entity
+	 *            Entity to be drawn.
+	 * @param positionX
+	 *            Coordinates for the left side of the image.
+	 * @param positionY
+	 *            Coordinates for the upper side of the image.
+	 */
+	@Override
+	public void drawEntity(final Entity entity, final int positionX,
+			final int positionY) {
+		drawSprite(entity.getSpriteType(), entity.getColor(), positionX,
+				positionY);
+	}
+
+	/**
+	 * Draws a sprite. The draw is queued and submitted together with the
+	 * rest of the sprites, grouped by color and sprite.
+	 * 
+	 * @param spriteType
+	 *            Sprite to be drawn.
+	 * @param color
+	 *            Color of the sprite.
+	 * @param positionX
+	 *            Coordinates for the left side of the image.
+	 * @param positionY
+	 *            Coordinates for the upper side of the image.
+	 */
+	@Override
+	public void drawSprite(final SpriteType spriteType, final Color color,
+			final int positionX, final int positionY) {
+		drawCommands.add(spriteType, color, positionX, positionY);
+	}
+
+	/**
+	 * Draws the queued sprites. Called before anything else is drawn over
+	 * them, so they stay below text and lines.
+	 */
+	private void flushSprites() {
+		int count = drawCommands.getCount();
+		if (count == 0)
+			return;
+		drawCommands.sort();
+
+		int rgb = 0;
+		BufferedImage image = null;
+		for (int i = 0; i < count; i++) {
+			// Color and image are only looked up when the batch changes.
+			boolean newBatch = i == 0 || !drawCommands.isSameBatch(i - 1, i);
+			if (rasterRendering) {
+				if (newBatch)
+					rgb = drawCommands.getColor(i).getRGB();
+				rasterRenderer.drawSprite(drawCommands.getSpriteType(i), rgb,
+						drawCommands.getPositionX(i) * pixelScale,
+						drawCommands.getPositionY(i) * pixelScale);
+			} else {
+				if (newBatch)
+					image = spriteCache.getImage(
+							drawCommands.getSpriteType(i),
+							drawCommands.getColor(i));
+				pixelGraphics.drawImage(image,
+						drawCommands.getPositionX(i) * pixelScale,
+						drawCommands.getPositionY(i) * pixelScale, null);
+			}
+		}
+		drawCommands.clear();
+	}
+
+	/**
+	 * For debugging purpouses, draws the canvas borders.
+	 * 
+	 * @param screen
+	 *            Screen to draw in.
+	 */
+	@SuppressWarnings("unused")
+	private void drawBorders(final Screen screen) {
+		backBufferGraphics.setColor(Color.GREEN);
+		backBufferGraphics.drawLine(0, 0, screen.getWidth() - 1, 0);
+		backBufferGraphics.drawLine(0, 0, 0, screen.getHeight() - 1);
+		backBufferGraphics.drawLine(screen.getWidth() - 1, 0,
+				screen.getWidth() - 1, screen.getHeight() - 1);
+		backBufferGraphics.drawLine(0, screen.getHeight() - 1,
+				screen.getWidth() - 1, screen.getHeight() - 1);
+	}
+
+	/**
+	 * For debugging purpouses, draws a grid over the canvas.
+	 * 
+	 * @param screen
+	 *            Screen to draw in.
+	 */
+	@SuppressWarnings("unused")
+	private void drawGrid(final Screen screen) {
+		backBufferGraphics.setColor(Color.DARK_GRAY);
+		for (int i = 0; i < screen.getHeight() - 1; i += 2)
+			backBufferGraphics.drawLine(0, i, screen.getWidth() - 1, i);
+		for (int j = 0; j < screen.getWidth() - 1; j += 2)
+			backBufferGraphics.drawLine(j, 0, j, screen.getHeight() - 1);
+	}
+
+	/**
+	 * Draws current score on screen.
+	 * 
+	 * @param screen
+	 *            Screen to draw on.
+	 * @param score
+	 *            Current score.
+	 */
+	@Override
+	public void drawScore(final Screen screen, final int score) {
+		flushSprites();
+		textBuffer.clear().append(score, 4);
+		fontRegularGlyphs.drawText(pixelGraphics, textBuffer,
+				screen.getWidth() - 60, 25, Color.WHITE);
+	}
+
+	/**
+	 * Draws number of remaining lives on screen.
+	 * 
+	 * @param screen
+	 *            Screen to draw on.
+	 * @param lives
+	 *            Current lives.
+	 */
+	@Override
+	public void drawLives(final Screen screen, final int lives) {
+		flushSprites();
+		textBuffer.clear().append(lives);
+		fontRegularGlyphs.drawText(pixelGraphics, textBuffer, 20, 25,
+				Color.WHITE);
+		if (lifeIcon == null)
+			lifeIcon = new Ship(0, 0);
+		for (int i = 0; i < lives; i++)
+			drawEntity(lifeIcon, 40 + 35 * i, 10);
+	}
+
+	/**
+	 * Draws a thick line from side to side of the screen.
+	 * 
+	 * @param screen
+	 *            Screen to draw on.
+	 * @param positionY
+	 *            Y coordinate of the line.
+	 */
+	@Override
+	public void drawHorizontalLine(final Screen screen, final int positionY) {
+		flushSprites();
+		backBufferGraphics.setColor(Color.GREEN);
+		backBufferGraphics.fillRect(0, positionY, screen.getWidth() + 1, 2);
+	}
+
+	/**
+	 * Draws game title.
+	 * 
+	 * @param screen
+	 *            Screen to draw on.
+	 */
+	@Override
+	public void drawTitle(final Screen screen) {
+		String titleString = "Invaders";
+		String instructionsString =
+				"select with w+s / arrows, confirm with space";
+
+		backBufferGraphics.setColor(Color.GRAY);
+		drawCenteredRegularString(screen, instructionsString,
+				screen.getHeight() / 2);
+
+		backBufferGraphics.setColor(Color.GREEN);
+		drawCenteredBigString(screen, titleString, screen.getHeight() / 3);
+	}
+
+	/**
+	 * Draws main menu.
+	 * 
+	 * @param screen
+	 *            Screen to draw on.
+	 * @param option
+	 *            Option selected.
+	 */
+	@Override
+	public void drawMenu(final Screen screen, final int option) {
+		String playString = "Play";
+		String highScoresString = "High scores";
+		String exitString = "exit";
+
+		if (option == 2)
+			backBufferGraphics.setColor(Color.GREEN);
+		else
+			backBufferGraphics.setColor(Color.WHITE);
+		drawCenteredRegularString(screen, playString,
+				screen.getHeight() / 3 * 2);
+		if (option == 3)
+			backBufferGraphics.setColor(Color.GREEN);
+		else
+			backBufferGraphics.setColor(Color.WHITE);
+		drawCenteredRegularString(screen, highScoresString, screen.getHeight()
+				/ 3 * 2 + fontRegularGlyphs.getHeight() * 2);
+		if (option == 0)
+			backBufferGraphics.setColor(Color.GREEN);
+		else
+			backBufferGraphics.setColor(Color.WHITE);
+		drawCenteredRegularString(screen, exitString, screen.getHeight() / 3
+				* 2 + fontRegularGlyphs.getHeight() * 4);
+	}
+
+	/**
+	 * Draws game results.
+	 * 
+	 * @param screen
+	 *            Screen to draw on.
+	 * @param score
+	 *            Score obtained.
+	 * @param livesRemaining
+	 *            Lives remaining when finished.
+	 * @param shipsDestroyed
+	 *            Total ships destroyed.
+	 * @param accuracy
+	 *            Total accuracy.
+	 * @param isNewRecord
+	 *            If the score is a new high score.
+	 */
+	@Override
+	public void drawResults(final Screen screen, final int score,
+			final int livesRemaining, final int shipsDestroyed,
+			final float accuracy, final boolean isNewRecord) {
+		int height = isNewRecord ? 4 : 2;
+
+		backBufferGraphics.setColor(Color.WHITE);
+		textBuffer.clear().append("score ").append(score, 4);
+		drawCenteredRegularText(screen, textBuffer, screen.getHeight()
+				/ height);
+		textBuffer.clear().append("lives remaining ").append(livesRemaining);
+		drawCenteredRegularText(screen, textBuffer,
+				screen.getHeight() / height + fontRegularGlyphs.getHeight()
+						* 2);
+		textBuffer.clear().append("enemies destroyed ")
+				.append(shipsDestroyed);
+		drawCenteredRegularText(screen, textBuffer,
+				screen.getHeight() / height + fontRegularGlyphs.getHeight()
+						* 4);
+		textBuffer.clear().append("accuracy ").appendDecimal(accuracy * 100)
+				.append('%');
+		drawCenteredRegularText(screen, textBuffer, screen.getHeight()
+				/ height + fontRegularGlyphs.getHeight() * 6);
+	}
+
+	/**
+	 * Draws interactive characters for name input.
+	 * 
+	 * @param screen
+	 *            Screen to draw on.
+	 * @param name
+	 *            Current name selected.
+	 * @param nameCharSelected
+	 *            Current character selected for modification.
+	 */
+	@Override
+	public void drawNameInput(final Screen screen, final char[] name,
+			final int nameCharSelected) {
+		flushSprites();
+		String newRecordString = "New Record!";
+		String introduceNameString = "Introduce name:";
+
+		backBufferGraphics.setColor(Color.GREEN);
+		drawCenteredRegularString(screen, newRecordString, screen.getHeight()
+				/ 4 + fontRegularGlyphs.getHeight() * 10);
+		backBufferGraphics.setColor(Color.WHITE);
+		drawCenteredRegularString(screen, introduceNameString,
+				screen.getHeight() / 4 + fontRegularGlyphs.getHeight() * 12);
+
+		// 3 letters name.
+		int positionX = screen.getWidth()
+				/ 2
+				- (fontRegularGlyphs.charWidth(name[0])
+						+ fontRegularGlyphs.charWidth(name[1])
+						+ fontRegularGlyphs.charWidth(name[2])
+								+ fontRegularGlyphs.charWidth(' ')) / 2;
+
+		for (int i = 0; i < 3; i++) {
+			positionX += fontRegularGlyphs.charWidth(name[i]) / 2;
+			positionX = i == 0 ? positionX
+					: positionX
+							+ (fontRegularGlyphs.charWidth(name[i - 1])
+									+ fontRegularGlyphs.charWidth(' ')) / 2;
+
+			fontRegularGlyphs.drawChar(pixelGraphics, name[i],
+					positionX,
+					screen.getHeight() / 4 + fontRegularGlyphs.getHeight()
+							* 14, i == nameCharSelected ? Color.GREEN
+							: Color.WHITE);
+		}
+	}
+
+	/**
+	 * Draws basic content of game over screen.
+	 * 
+	 * @param screen
+	 *            Screen to draw on.
+	 * @param acceptsInput
+	 *            If the screen accepts input.
+	 * @param isNewRecord
+	 *            If the score is a new high score.
+	 */
+	@Override
+	public void drawGameOver(final Screen screen, final boolean acceptsInput,
+			final boolean isNewRecord) {
+		String gameOverString = "Game Over";
+		String continueOrExitString =
+				"Press Space to play again, Escape to exit";
+
+		int height = isNewRecord ? 4 : 2;
+
+		backBufferGraphics.setColor(Color.GREEN);
+		drawCenteredBigString(screen, gameOverString, screen.getHeight()
+				/ height - fontBigGlyphs.getHeight() * 2);
+
+		if (acceptsInput)
+			backBufferGraphics.setColor(Color.GREEN);
+		else
+			backBufferGraphics.setColor(Color.GRAY);
+		drawCenteredRegularString(screen, continueOrExitString,
+				screen.getHeight() / 2 + fontRegularGlyphs.getHeight() * 10);
+	}
+
+	/**
+	 * Draws high score screen title and instructions.
+	 * 
+	 * @param screen
+	 *            Screen to draw on.
+	 */
+	@Override
+	public void drawHighScoreMenu(final Screen screen) {
+		String highScoreString = "High Scores";
+		String instructionsString = "Press Space to return";
+
+		backBufferGraphics.setColor(Color.GREEN);
+		drawCenteredBigString(screen, highScoreString, screen.getHeight() / 8);
+
+		backBufferGraphics.setColor(Color.GRAY);
+		drawCenteredRegularString(screen, instructionsString,
+				screen.getHeight() / 5);
+	}
+
+	/**
+	 * Draws high scores.
+	 * 
+	 * @param screen
+	 *            Screen to draw on.
+	 * @param highScores
+	 *            List of high scores.
+	 */
+	@Override
+	public void drawHighScores(final Screen screen,
+			final List<Score> highScores) {
+		backBufferGraphics.setColor(Color.WHITE);
+		int i = 0;
+
+		for (Score score : highScores) {
+			textBuffer.clear().append(score.getName()).append("        ")
+					.append(score.getScore(), 4);
+			drawCenteredRegularText(screen, textBuffer, screen.getHeight()
+					/ 4 + fontRegularGlyphs.getHeight() * (i + 1) * 2);
+			i++;
+		}
+	}
+
+	/**
+	 * Draws a centered string on regular font.
+	 * 
+	 * @param screen
+	 *            Screen to draw on.
+	 * @param string
+	 *            String to draw.
+	 * @param height
+	 *            Height of the drawing.
+	 */
+	@Override
+	public void drawCenteredRegularString(final Screen screen,
+			final String string, final int height) {
+		flushSprites();
+		fontRegularGlyphs.drawString(pixelGraphics, string,
+				screen.getWidth() / 2 - fontRegularGlyphs.stringWidth(string)
+						/ 2, height, backBufferGraphics.getColor());
+	}
+
+	/**
+	 * Draws a centered text on regular font.
+	 * 
+	 * @param screen
+	 *            Screen to draw on.
+	 * @param text
+	 *            Text to draw.
+	 * @param height
+	 *            Height of the drawing.
+	 */
+	private void drawCenteredRegularText(final Screen screen,
+			final TextBuffer text, final int height) {
+		flushSprites();
+		fontRegularGlyphs.drawText(pixelGraphics, text,
+				screen.getWidth() / 2 - fontRegularGlyphs.textWidth(text) / 2,
+				height, backBufferGraphics.getColor());
+	}
+
+	/**
+	 * Draws a centered string on big font.
+	 * 
+	 * @param screen
+	 *            Screen to draw on.
+	 * @param string
+	 *            String to draw.
+	 * @param height
+	 *            Height of the drawing.
+	 */
+	@Override
+	public void drawCenteredBigString(final Screen screen, final String string,
+			final int height) {
+		flushSprites();
+		fontBigGlyphs.drawString(pixelGraphics, string,
+				screen.getWidth() / 2 - fontBigGlyphs.stringWidth(string) / 2,
+				height, backBufferGraphics.getColor());
+	}
+
+	/**
+	 * Draws a centered text on big font.
+	 * 
+	 * @param screen
+	 *            Screen to draw on.
+	 * @param text
+	 *            Text to draw.
+	 * @param height
+	 *            Height of the drawing.
+	 */
+	private void drawCenteredBigText(final Screen screen,
+			final TextBuffer text, final int height) {
+		flushSprites();
+		fontBigGlyphs.drawText(pixelGraphics, text,
+				screen.getWidth() / 2 - fontBigGlyphs.textWidth(text) / 2,
+				height, backBufferGraphics.getColor());
+	}
+
+	/**
+	 * Countdown to game start.
+	 * 
+	 * @param screen
+	 *            Screen to draw on.
+	 * @param level
+	 *            Game difficulty level.
+	 * @param number
+	 *            Countdown number.
+	 * @param bonusLife
+	 *            Checks if a bonus life is received.
+	 */
+	@Override
+	public void drawCountDown(final Screen screen, final int level,
+			final int number, final boolean bonusLife) {
+		flushSprites();
+		int rectWidth = screen.getWidth();
+		int rectHeight = screen.getHeight() / 6;
+		backBufferGraphics.setColor(Color.BLACK);
+		backBufferGraphics.fillRect(0, screen.getHeight() / 2 - rectHeight / 2,
+				rectWidth, rectHeight);
+		backBufferGraphics.setColor(Color.GREEN);
+		if (number >= 4)
+			if (!bonusLife) {
+				textBuffer.clear().append("Level ").append(level);
+				drawCenteredBigText(screen, textBuffer,
+						screen.getHeight() / 2
+						+ fontBigGlyphs.getHeight() / 3);
+			} else {
+				textBuffer.clear().append("Level ").append(level)
+						.append(" - Bonus life!");
+				drawCenteredBigText(screen, textBuffer,
+						screen.getHeight() / 2
+						+ fontBigGlyphs.getHeight() / 3);
+			}
+		else if (number != 0) {
+			textBuffer.clear().append(number);
+			drawCenteredBigText(screen, textBuffer,
+					screen.getHeight() / 2 + fontBigGlyphs.getHeight() / 3);
+		}
+		else
+			drawCenteredBigString(screen, "GO!", screen.getHeight() / 2
+					+ fontBigGlyphs.getHeight() / 3);
+	}
+}
@@ -0,0 +1,68 @@
+package engine;
+
+/**
+ * Implements a sprite stored as bit-packed rows, one long per row, where bit
+ * i of a row is set if the pixel in column i is lit.
+ *
+ * @author <a href="mailto:RobertoIA1987@gmail.com">Roberto Izquierdo Amo</a>
+ *
+ */
+public final class PackedSprite {
+
+	/** Maximum width of a packed sprite, in pixels. */
+	public static final int MAX_WIDTH = Long.SIZE;
+
+	/** Width of the sprite. */
+	private int width;
+	/** Height of the sprite. */
+	private int height;
+	/** Lit pixels of each row. */
+	private long[] rows;
+
+	/**
+	 * Constructor, packs a sprite matrix.
+	 *
+	 * @param sprite
+	 *            Pixel matrix of the sprite, indexed by column and row.
+	 */
+	public PackedSprite(final boolean[][] sprite) {
+		this.width = sprite.length;
+		this.height = sprite[0].length;
+		if (this.width > MAX_WIDTH)
+			throw new IllegalArgumentException("Sprite wider than "
+					+ MAX_WIDTH + " pixels.");
+
+		this.rows = new long[this.height];
+		for (int i = 0; i < this.width; i++)
+			for (int j = 0; j < this.height; j++)
+				if (sprite[i][j])
+					this.rows[j] |= 1L << i;
+	}
+
+	/**
+	 * Getter for the width of the sprite.
+	 *
+	 * @return Width of the sprite, in pixels.
+	 */
+	public int getWidth() {
+		return this.width;
+	}
+
+	/**
+	 * Getter for the height of the sprite.
+	 *
+	 * @return Height of the sprite, in pixels.
+	 */
+	public int getHeight() {
+		return this.height;
+	}
+
+	/**
+	 * Getter for the packed rows of the sprite.
+	 *
+	 * @return Lit pixels of each row, from top to bottom.
+	 */
+	public long[] getRows() {
+		return this.rows;
+	}
+}
@@ -0,0 +1,146 @@
+package engine;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.logging.Logger;
+
+import entity.EnemyShipFormation;
+
+/**
+ * Prepares the data of the screens likely to come next on a background
+ * thread, while the current screen runs, so changing screens does not stall
+ * the game loop. Anything not prepared in time, or not prepared at all, is
+ * loaded on the spot instead.
+ *
+ * @author <a href="mailto:RobertoIA1987@gmail.com">Roberto Izquierdo Amo</a>
+ *
+ */
+public final class Preloader {
+
+	/** Thread the data is prepared on. */
+	private ExecutorService executor;
+	/** Difficulty settings of each level. */
+	private List<GameSettings> gameSettings;
+	/** File manager the high scores are read with. */
+	private FileManager fileManager;
+	/** Application logger. */
+	private Logger logger;
+	/** High scores being loaded, null if none. */
+	private Future<List<Score>> highScores;
+	/** Formation being built, null if none. */
+	private Future<EnemyShipFormation> formation;
+	/** Settings of the formation being built. */
+	private GameSettings formationSettings;
+
+	/**
+	 * Constructor, starts the background thread.
+	 *
+	 * @param gameSettings
+	 *            Difficulty settings of each level.
+	 */
+	public Preloader(final List<GameSettings> gameSettings) {
+		this.gameSettings = gameSettings;
+		this.fileManager = Core.getFileManager();
+		this.logger = Core.getLogger();
+		this.executor = Executors.newSingleThreadExecutor(
+				new ThreadFactory() {
+					@Override
+					public Thread newThread(final Runnable runnable) {
+						Thread thread = new Thread(runnable, "Preloader");
+						thread.setDaemon(true);
+						thread.setPriority(Thread.MIN_PRIORITY);
+						return thread;
+					}
+				});
+	}
+
+	/**
+	 * Starts loading the high scores, if not already being loaded.
+	 */
+	public void preloadHighScores() {
+		if (this.highScores != null)
+			return;
+		this.highScores = this.executor.submit(new Callable<List<Score>>() {
+			@Override
+			public List<Score> call() throws IOException {
+				return fileManager.loadHighScores();
+			}
+		});
+	}
+
+	/**
+	 * Returns the high scores, waiting for them if they are still loading.
+	 * Each load is handed out once, so changes saved later are read again.
+	 *
+	 * @return Sorted list of scores.
+	 * @throws IOException
+	 *             In case of loading problems.
+	 */
+	public List<Score> getHighScores() throws IOException {
+		Future<List<Score>> loading = this.highScores;
+		this.highScores = null;
+		if (loading != null) {
+			try {
+				return loading.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} catch (ExecutionException e) {
+				this.logger.warning("Couldn't preload high scores.");
+			}
+		}
+		return this.fileManager.loadHighScores();
+	}
+
+	/**
+	 * Starts building the formation of a level, replacing the one being
+	 * built if any.
+	 *
+	 * @param level
+	 *            Number of the level, ignored if there is no such level.
+	 */
+	public void preloadLevel(final int level) {
+		if (level < 1 || level > this.gameSettings.size())
+			return;
+		final GameSettings settings = this.gameSettings.get(level - 1);
+		if (this.formation != null && this.formationSettings == settings)
+			return;
+		this.formationSettings = settings;
+		this.formation = this.executor.submit(
+				new Callable<EnemyShipFormation>() {
+					@Override
+					public EnemyShipFormation call() {
+						return new EnemyShipFormation(settings);
+					}
+				});
+	}
+
+	/**
+	 * Returns a formation for the given settings, the preloaded one if it
+	 * was built for them.
+	 *
+	 * @param settings
+	 *            Difficulty settings of the level.
+	 * @return A new formation.
+	 */
+	public EnemyShipFormation getFormation(final GameSettings settings) {
+		Future<EnemyShipFormation> building = this.formation;
+		if (building != null && this.formationSettings == settings) {
+			this.formation = null;
+			this.formationSettings = null;
+			try {
+				return building.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} catch (ExecutionException e) {
+				this.logger.warning("Couldn't preload the formation.");
+			}
+		}
+		return new EnemyShipFormation(settings);
+	}
+}
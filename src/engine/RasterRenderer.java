@@ -0,0 +1,169 @@
+package engine;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+import engine.DrawManager.SpriteType;
+
+/**
+ * Draws sprites by writing pixels directly into the backing array of an
+ * integer RGB image, without going through Java2D.
+ *
+ * @author <a href="mailto:RobertoIA1987@gmail.com">Roberto Izquierdo Amo</a>
+ *
+ */
+public final class RasterRenderer {
+
+	/** Sprite types mapped to their packed images. */
+	private Map<SpriteType, PackedSprite> sprites;
+	/** Screen pixels for each sprite pixel. */
+	private int scale;
+	/** Pixels of the target image. */
+	private int[] pixels;
+	/** Width of the target image. */
+	private int width;
+	/** Height of the target image. */
+	private int height;
+
+	/**
+	 * Constructor, establishes the scale of the sprites.
+	 *
+	 * @param scale
+	 *            Screen pixels for each sprite pixel.
+	 */
+	public RasterRenderer(final int scale) {
+		this.scale = scale;
+		this.sprites = new EnumMap<SpriteType, PackedSprite>(
+				SpriteType.class);
+	}
+
+	/**
+	 * Packs the sprites, replacing the previously packed ones.
+	 *
+	 * @param spriteMap
+	 *            Mapping of sprite type and the matrix with its image.
+	 */
+	public void setSprites(final Map<SpriteType, boolean[][]> spriteMap) {
+		this.sprites.clear();
+		for (Map.Entry<SpriteType, boolean[][]> sprite : spriteMap
+				.entrySet())
+			this.sprites.put(sprite.getKey(),
+					new PackedSprite(sprite.getValue()));
+	}
+
+	/**
+	 * Sets the image to draw on.
+	 *
+	 * @param image
+	 *            Image of type TYPE_INT_RGB.
+	 */
+	public void setTarget(final BufferedImage image) {
+		this.pixels = ((DataBufferInt) image.getRaster().getDataBuffer())
+				.getData();
+		this.width = image.getWidth();
+		this.height = image.getHeight();
+	}
+
+	/**
+	 * Fills the whole image with a color.
+	 *
+	 * @param rgb
+	 *            Color to fill with.
+	 */
+	public void clear(final int rgb) {
+		Arrays.fill(this.pixels, rgb);
+	}
+
+	/**
+	 * Draws a sprite.
+	 *
+	 * @param spriteType
+	 *            Sprite to draw.
+	 * @param rgb
+	 *            Color of the lit pixels.
+	 * @param positionX
+	 *            Coordinates for the left side of the image.
+	 * @param positionY
+	 *            Coordinates for the upper side of the image.
+	 */
+	public void drawSprite(final SpriteType spriteType, final int rgb,
+			final int positionX, final int positionY) {
+		PackedSprite sprite = this.sprites.get(spriteType);
+		long[] rows = sprite.getRows();
+
+		if (positionX >= 0 && positionY >= 0
+				&& positionX + sprite.getWidth() * this.scale <= this.width
+				&& positionY + sprite.getHeight() * this.scale <= this.height)
+			drawUnclipped(rows, rgb, positionX, positionY);
+		else
+			drawClipped(rows, rgb, positionX, positionY);
+	}
+
+	/**
+	 * Draws a sprite that lies completely inside the image.
+	 *
+	 * @param rows
+	 *            Packed rows of the sprite.
+	 * @param rgb
+	 *            Color of the lit pixels.
+	 * @param positionX
+	 *            Coordinates for the left side of the image.
+	 * @param positionY
+	 *            Coordinates for the upper side of the image.
+	 */
+	private void drawUnclipped(final long[] rows, final int rgb,
+			final int positionX, final int positionY) {
+		int[] target = this.pixels;
+		int rowOffset = positionY * this.width + positionX;
+
+		for (int j = 0; j < rows.length; j++) {
+			for (int k = 0; k < this.scale; k++) {
+				long row = rows[j];
+				while (row != 0) {
+					int offset = rowOffset + Long.numberOfTrailingZeros(row)
+							* this.scale;
+					for (int l = 0; l < this.scale; l++)
+						target[offset + l] = rgb;
+					row &= row - 1;
+				}
+				rowOffset += this.width;
+			}
+		}
+	}
+
+	/**
+	 * Draws a sprite that lies partially or completely outside the image.
+	 *
+	 * @param rows
+	 *            Packed rows of the sprite.
+	 * @param rgb
+	 *            Color of the lit pixels.
+	 * @param positionX
+	 *            Coordinates for the left side of the image.
+	 * @param positionY
+	 *            Coordinates for the upper side of the image.
+	 */
+	private void drawClipped(final long[] rows, final int rgb,
+			final int positionX, final int positionY) {
+		for (int j = 0; j < rows.length; j++) {
+			for (int k = 0; k < this.scale; k++) {
+				int y = positionY + j * this.scale + k;
+				if (y < 0 || y >= this.height)
+					continue;
+
+				long row = rows[j];
+				while (row != 0) {
+					int x = positionX + Long.numberOfTrailingZeros(row)
+							* this.scale;
+					for (int l = 0; l < this.scale; l++)
+						if (x + l >= 0 && x + l < this.width)
+							this.pixels[y * this.width + x + l] = rgb;
+					row &= row - 1;
+				}
+			}
+		}
+	}
+}
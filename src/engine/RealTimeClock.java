@@ -0,0 +1,27 @@
+package engine;
+
+/**
+ * Game clock following the system time.
+ * 
+ * @author <a href="mailto:RobertoIA1987@gmail.com">Roberto Izquierdo Amo</a>
+ * 
+ */
+public final class RealTimeClock implements GameClock {
+
+	/**
+	 * Returns the current system time.
+	 * 
+	 * @return System time in milliseconds.
+	 */
+	@Override
+	public long getTime() {
+		return System.currentTimeMillis();
+	}
+
+	/**
+	 * Does nothing, the time advances on its own.
+	 */
+	@Override
+	public void tick() {
+	}
+}
@@ -0,0 +1,98 @@
+package engine;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Draws the latest world snapshot on its own thread, so a slow frame does
+ * not delay the simulation.
+ *
+ * @author <a href="mailto:RobertoIA1987@gmail.com">Roberto Izquierdo Amo</a>
+ *
+ */
+public final class RenderThread extends Thread {
+
+	/** Maximum time waiting for a snapshot, in nanoseconds. */
+	private static final long MAX_WAIT = 5000000;
+
+	/** Source of the snapshots. */
+	private SnapshotExchanger exchanger;
+	/** Draws each snapshot. */
+	private Renderer renderer;
+	/** If the thread keeps drawing. */
+	private volatile boolean isRunning;
+	/** Number of snapshots drawn. */
+	private volatile long framesDrawn;
+
+	/** Draws a snapshot. */
+	public interface Renderer {
+		/**
+		 * Draws a snapshot on screen.
+		 *
+		 * @param snapshot
+		 *            Snapshot to draw.
+		 */
+		void render(WorldSnapshot snapshot);
+	}
+
+	/**
+	 * Constructor, establishes the source of the snapshots.
+	 *
+	 * @param exchanger
+	 *            Source of the snapshots.
+	 * @param renderer
+	 *            Draws each snapshot.
+	 */
+	public RenderThread(final SnapshotExchanger exchanger,
+			final Renderer renderer) {
+		super("Render");
+		setDaemon(true);
+		this.exchanger = exchanger;
+		this.renderer = renderer;
+		this.isRunning = true;
+	}
+
+	/**
+	 * Draws snapshots as they are published.
+	 */
+	@Override
+	public void run() {
+		while (this.isRunning) {
+			WorldSnapshot snapshot = this.exchanger.takeLatest();
+			if (snapshot == null) {
+				LockSupport.parkNanos(this, MAX_WAIT);
+			} else {
+				this.renderer.render(snapshot);
+				this.framesDrawn++;
+			}
+		}
+	}
+
+	/**
+	 * Wakes the thread after a snapshot is published.
+	 */
+	public void signal() {
+		LockSupport.unpark(this);
+	}
+
+	/**
+	 * Stops drawing and waits until the current frame is finished.
+	 */
+	public void finish() {
+		this.isRunning = false;
+		LockSupport.unpark(this);
+		try {
+			join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Getter for the number of snapshots drawn.
+	 *
+	 * @return Number of frames drawn.
+	 */
+	public long getFramesDrawn() {
+		return this.framesDrawn;
+	}
+}
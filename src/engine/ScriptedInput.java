@@ -0,0 +1,69 @@
+package engine;
+
+import java.awt.event.KeyEvent;
+
+/**
+ * Plays the game without a keyboard, for measurements. Keeps the fire key
+ * pressed and sweeps the ship from side to side, changing direction at a
+ * fixed interval of game time.
+ *
+ * @author <a href="mailto:RobertoIA1987@gmail.com">Roberto Izquierdo Amo</a>
+ *
+ */
+public final class ScriptedInput extends TimerWheel.Timer {
+
+	/** Milliseconds between direction changes. */
+	private static final int SWEEP_INTERVAL = 1500;
+
+	/** Input manager the keys are pressed on. */
+	private InputManager inputManager;
+	/** Timers the script is scheduled on. */
+	private TimerWheel timerWheel;
+	/** Checks if the ship is currently moving right. */
+	private boolean isMovingRight;
+
+	/**
+	 * Constructor, establishes the keys to press.
+	 *
+	 * @param inputManager
+	 *            Input manager the keys are pressed on.
+	 */
+	public ScriptedInput(final InputManager inputManager) {
+		this.inputManager = inputManager;
+	}
+
+	/**
+	 * Starts playing on a screen, pressing the keys.
+	 *
+	 * @param newTimerWheel
+	 *            Timers of the screen played on.
+	 */
+	public void start(final TimerWheel newTimerWheel) {
+		this.timerWheel = newTimerWheel;
+		this.isMovingRight = false;
+		this.inputManager.setKeyDown(KeyEvent.VK_SPACE, true);
+		expire();
+	}
+
+	/**
+	 * Releases every key pressed by the script and stops it.
+	 */
+	public void stop() {
+		if (this.timerWheel != null)
+			this.timerWheel.cancel(this);
+		this.inputManager.setKeyDown(KeyEvent.VK_SPACE, false);
+		this.inputManager.setKeyDown(KeyEvent.VK_RIGHT, false);
+		this.inputManager.setKeyDown(KeyEvent.VK_LEFT, false);
+	}
+
+	/**
+	 * Changes the direction of the ship and waits for the next change.
+	 */
+	@Override
+	protected void expire() {
+		this.isMovingRight = !this.isMovingRight;
+		this.inputManager.setKeyDown(KeyEvent.VK_RIGHT, this.isMovingRight);
+		this.inputManager.setKeyDown(KeyEvent.VK_LEFT, !this.isMovingRight);
+		this.timerWheel.schedule(this, SWEEP_INTERVAL);
+	}
+}
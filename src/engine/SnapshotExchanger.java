@@ -0,0 +1,71 @@
+package engine;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands world snapshots from the simulation thread to the render thread
+ * without locks, using three buffers: one being written, one being drawn and
+ * one holding the latest published snapshot.
+ *
+ * @author <a href="mailto:RobertoIA1987@gmail.com">Roberto Izquierdo Amo</a>
+ *
+ */
+public final class SnapshotExchanger {
+
+	/** Flag marking the shared buffer as not yet drawn. */
+	private static final int FRESH = 4;
+	/** Mask for the buffer index. */
+	private static final int INDEX_MASK = 3;
+
+	/** Snapshot buffers. */
+	private WorldSnapshot[] snapshots;
+	/** Index of the shared buffer, with the fresh flag. */
+	private AtomicInteger shared;
+	/** Index of the buffer owned by the simulation thread. */
+	private int writeIndex;
+	/** Index of the buffer owned by the render thread. */
+	private int readIndex;
+
+	/**
+	 * Constructor, allocates the buffers.
+	 */
+	public SnapshotExchanger() {
+		this.snapshots = new WorldSnapshot[] { new WorldSnapshot(),
+				new WorldSnapshot(), new WorldSnapshot() };
+		this.writeIndex = 0;
+		this.shared = new AtomicInteger(1);
+		this.readIndex = 2;
+	}
+
+	/**
+	 * Returns the snapshot the simulation thread can fill. Only to be called
+	 * from the simulation thread.
+	 *
+	 * @return Snapshot to write.
+	 */
+	public WorldSnapshot getWriteSnapshot() {
+		return this.snapshots[this.writeIndex];
+	}
+
+	/**
+	 * Publishes the written snapshot as the latest one. Only to be called
+	 * from the simulation thread.
+	 */
+	public void publish() {
+		this.writeIndex = this.shared.getAndSet(this.writeIndex | FRESH)
+				& INDEX_MASK;
+	}
+
+	/**
+	 * Takes the latest published snapshot, if there is a new one. Only to be
+	 * called from the render thread.
+	 *
+	 * @return Latest snapshot, null if it was already taken.
+	 */
+	public WorldSnapshot takeLatest() {
+		if ((this.shared.get() & FRESH) == 0)
+			return null;
+		this.readIndex = this.shared.getAndSet(this.readIndex) & INDEX_MASK;
+		return this.snapshots[this.readIndex];
+	}
+}
@@ -0,0 +1,124 @@
+package engine;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.GraphicsEnvironment;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+import engine.DrawManager.SpriteType;
+
+/**
+ * Keeps pre-rasterized images of the sprites, one for each sprite type and
+ * color pair, so entities can be drawn with a single image copy.
+ *
+ * @author <a href="mailto:RobertoIA1987@gmail.com">Roberto Izquierdo Amo</a>
+ *
+ */
+public final class SpriteCache {
+
+	/** Sprite types mapped to their pixel matrices. */
+	private Map<SpriteType, boolean[][]> spriteMap;
+	/** Screen pixels for each sprite pixel. */
+	private int scale;
+	/** Rasterized images, by sprite type and color. */
+	private Map<SpriteType, Map<Color, BufferedImage>> images;
+
+	/**
+	 * Constructor, establishes the sprites to rasterize.
+	 *
+	 * @param spriteMap
+	 *            Mapping of sprite type and the matrix with its image.
+	 * @param scale
+	 *            Screen pixels for each sprite pixel.
+	 */
+	public SpriteCache(final Map<SpriteType, boolean[][]> spriteMap,
+			final int scale) {
+		this.spriteMap = spriteMap;
+		this.scale = scale;
+		this.images = new EnumMap<SpriteType, Map<Color, BufferedImage>>(
+				SpriteType.class);
+	}
+
+	/**
+	 * Returns the image of a sprite in a given color, rasterizing it the
+	 * first time it is requested.
+	 *
+	 * @param spriteType
+	 *            Sprite to draw.
+	 * @param color
+	 *            Color of the lit pixels.
+	 * @return Image ready to be drawn.
+	 */
+	public BufferedImage getImage(final SpriteType spriteType,
+			final Color color) {
+		Map<Color, BufferedImage> colorImages = this.images.get(spriteType);
+		if (colorImages == null) {
+			colorImages = new HashMap<Color, BufferedImage>();
+			this.images.put(spriteType, colorImages);
+		}
+
+		BufferedImage image = colorImages.get(color);
+		if (image == null) {
+			image = rasterize(this.spriteMap.get(spriteType), color);
+			colorImages.put(color, image);
+		}
+		return image;
+	}
+
+	/**
+	 * Discards every rasterized image, so they are built again from the
+	 * current sprite matrices.
+	 */
+	public void clear() {
+		this.images.clear();
+	}
+
+	/**
+	 * Builds the image of a sprite, scaled and with a transparent background.
+	 *
+	 * @param sprite
+	 *            Pixel matrix of the sprite.
+	 * @param color
+	 *            Color of the lit pixels.
+	 * @return Rasterized sprite.
+	 */
+	private BufferedImage rasterize(final boolean[][] sprite,
+			final Color color) {
+		BufferedImage image = createImage(sprite.length * this.scale,
+				sprite[0].length * this.scale);
+
+		Graphics graphics = image.getGraphics();
+		graphics.setColor(color);
+		for (int i = 0; i < sprite.length; i++)
+			for (int j = 0; j < sprite[i].length; j++)
+				if (sprite[i][j])
+					graphics.fillRect(i * this.scale, j * this.scale,
+							this.scale, this.scale);
+		graphics.dispose();
+
+		return image;
+	}
+
+	/**
+	 * Creates an empty image with a transparent background.
+	 *
+	 * @param width
+	 *            Width of the image.
+	 * @param height
+	 *            Height of the image.
+	 * @return New image.
+	 */
+	static BufferedImage createImage(final int width, final int height) {
+		// Compatible images can be kept in video memory by Java2D.
+		if (GraphicsEnvironment.isHeadless())
+			return new BufferedImage(width, height,
+					BufferedImage.TYPE_INT_ARGB);
+		return GraphicsEnvironment.getLocalGraphicsEnvironment()
+				.getDefaultScreenDevice().getDefaultConfiguration()
+				.createCompatibleImage(width, height, Transparency.BITMASK);
+	}
+}
@@ -0,0 +1,291 @@
+package engine;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Insets;
+import java.awt.Toolkit;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.awt.image.BufferStrategy;
+
+import screen.Screen;
+
+/**
+ * Manages screen drawing, showing the drawing on a Swing frame.
+ * 
+ * @author <a href="mailto:RobertoIA1987@gmail.com">Roberto Izquierdo Amo</a>
+ * 
+ */
+public final class SwingDrawManager extends OffscreenDrawManager {
+
+	/** Current frame. */
+	private Frame frame;
+	/** Frame insets, offset of the drawable area. */
+	private Insets insets;
+	/** Horizontal position of the image in the frame. */
+	private int originX;
+	/** Vertical position of the image in the frame. */
+	private int originY;
+	/** Checks if the frame was resized since the scale was chosen. */
+	private volatile boolean resized;
+	/** Checks if nothing changed in the previous frame. */
+	private boolean previousDamageEmpty;
+	/** Left side of the area changed in the previous frame. */
+	private int previousMinX;
+	/** Upper side of the area changed in the previous frame. */
+	private int previousMinY;
+	/** Right side of the area changed in the previous frame. */
+	private int previousMaxX;
+	/** Lower side of the area changed in the previous frame. */
+	private int previousMaxY;
+
+	/**
+	 * Constructor, establishes the frame to draw the image on.
+	 * 
+	 * @param frame
+	 *            Frame to draw on.
+	 */
+	SwingDrawManager(final Frame frame) {
+		super();
+		this.frame = frame;
+		this.insets = frame.getInsets();
+		this.originX = this.insets.left;
+		this.originY = this.insets.top;
+	}
+
+	/**
+	 * Lets the frame be resized, drawing at the largest integer scale that
+	 * fits in it. Sprites and glyphs are rasterized again at that scale when
+	 * the size changes, the game keeps its logical coordinates.
+	 */
+	public void setScalable() {
+		frame.setResizable(true);
+		frame.addComponentListener(new ComponentAdapter() {
+			@Override
+			public void componentResized(final ComponentEvent event) {
+				resized = true;
+			}
+		});
+	}
+
+	/**
+	 * First part of the drawing process. Applies the new scale if the frame
+	 * was resized.
+	 * 
+	 * @param screen
+	 *            Screen to draw in.
+	 */
+	@Override
+	public void initDrawing(final Screen screen) {
+		// Only a full drawing can start on a newly scaled buffer.
+		if (resized) {
+			resized = false;
+			updateScale(screen);
+		}
+		super.initDrawing(screen);
+	}
+
+	/**
+	 * Checks if the previous drawing was lost or the frame was resized.
+	 * 
+	 * @return True if the next drawing has to draw everything.
+	 */
+	@Override
+	public boolean needsFullRedraw() {
+		return resized || super.needsFullRedraw();
+	}
+
+	/**
+	 * Chooses the largest integer scale at which the screen fits in the
+	 * frame, and centers the image.
+	 * 
+	 * @param screen
+	 *            Screen to draw in.
+	 */
+	private void updateScale(final Screen screen) {
+		Dimension size = frame.getSize();
+		insets = frame.getInsets();
+		int areaWidth = size.width - insets.left - insets.right;
+		int areaHeight = size.height - insets.top - insets.bottom;
+
+		int scale = Math.max(1, Math.min(areaWidth / screen.getWidth(),
+				areaHeight / screen.getHeight()));
+		setPixelScale(scale);
+
+		originX = insets.left
+				+ Math.max(0, (areaWidth - screen.getWidth() * scale) / 2);
+		originY = insets.top
+				+ Math.max(0, (areaHeight - screen.getHeight() * scale) / 2);
+	}
+
+	/**
+	 * Draws the completed drawing on screen.
+	 * 
+	 * @param screen
+	 *            Screen to draw on.
+	 */
+	@Override
+	public void completeDrawing(final Screen screen) {
+		finishFrame();
+		present(0, 0, getImage().getWidth(), getImage().getHeight(), true);
+	}
+
+	/**
+	 * Draws on screen only the areas of the completed drawing that changed.
+	 * 
+	 * @param screen
+	 *            Screen to draw on.
+	 * @param dirtyRegion
+	 *            Areas of the screen that changed.
+	 */
+	@Override
+	public void completeDrawing(final Screen screen,
+			final DirtyRegion dirtyRegion) {
+		if (dirtyRegion.isFull()) {
+			completeDrawing(screen);
+			return;
+		}
+		finishFrame();
+		if (dirtyRegion.isEmpty() && previousDamageEmpty)
+			return;
+
+		int scale = getPixelScale();
+		int minX = Math.max(0, dirtyRegion.getUnionMinX() * scale);
+		int minY = Math.max(0, dirtyRegion.getUnionMinY() * scale);
+		int maxX = Math.min(getImage().getWidth(),
+				dirtyRegion.getUnionMaxX() * scale);
+		int maxY = Math.min(getImage().getHeight(),
+				dirtyRegion.getUnionMaxY() * scale);
+		boolean isEmpty = minX >= maxX || minY >= maxY;
+
+		// With page flipping, the buffer shown two frames ago is reused, so
+		// the areas changed in the previous frame are drawn again too.
+		if (!previousDamageEmpty) {
+			if (isEmpty) {
+				minX = previousMinX;
+				minY = previousMinY;
+				maxX = previousMaxX;
+				maxY = previousMaxY;
+			} else {
+				minX = Math.min(minX, previousMinX);
+				minY = Math.min(minY, previousMinY);
+				maxX = Math.max(maxX, previousMaxX);
+				maxY = Math.max(maxY, previousMaxY);
+			}
+		}
+
+		present(minX, minY, maxX, maxY, false);
+
+		previousDamageEmpty = isEmpty;
+		if (!isEmpty) {
+			previousMinX = Math.max(0, dirtyRegion.getUnionMinX() * scale);
+			previousMinY = Math.max(0, dirtyRegion.getUnionMinY() * scale);
+			previousMaxX = Math.min(getImage().getWidth(),
+					dirtyRegion.getUnionMaxX() * scale);
+			previousMaxY = Math.min(getImage().getHeight(),
+					dirtyRegion.getUnionMaxY() * scale);
+		}
+	}
+
+	/**
+	 * Copies an area of the buffer to the screen.
+	 * 
+	 * @param minX
+	 *            Left side of the area.
+	 * @param minY
+	 *            Upper side of the area.
+	 * @param maxX
+	 *            Right side of the area, exclusive.
+	 * @param maxY
+	 *            Lower side of the area, exclusive.
+	 * @param isFull
+	 *            If the area is the whole buffer.
+	 */
+	private void present(final int minX, final int minY, final int maxX,
+			final int maxY, final boolean isFull) {
+		BufferStrategy bufferStrategy = frame.getBufferStrategy();
+		boolean restored = false;
+
+		if (isFull) {
+			previousDamageEmpty = false;
+			previousMinX = 0;
+			previousMinY = 0;
+			previousMaxX = getImage().getWidth();
+			previousMaxY = getImage().getHeight();
+		}
+
+		if (bufferStrategy == null) {
+			Graphics graphics = frame.getGraphics();
+			drawBufferArea(graphics, minX, minY, maxX, maxY);
+			graphics.dispose();
+			return;
+		}
+
+		// Draws again if the accelerated buffers lose their contents.
+		do {
+			do {
+				Graphics graphics = bufferStrategy.getDrawGraphics();
+				if (isFull || restored) {
+					drawBorders(graphics);
+					drawBufferArea(graphics, 0, 0, getImage().getWidth(),
+							getImage().getHeight());
+				}
+				else
+					drawBufferArea(graphics, minX, minY, maxX, maxY);
+				graphics.dispose();
+				restored = bufferStrategy.contentsRestored();
+			} while (restored);
+			bufferStrategy.show();
+			restored = bufferStrategy.contentsLost();
+		} while (restored);
+
+		Toolkit.getDefaultToolkit().sync();
+	}
+
+	/**
+	 * Fills the area of the frame around the image, if any.
+	 * 
+	 * @param graphics
+	 *            Graphics context of the screen.
+	 */
+	private void drawBorders(final Graphics graphics) {
+		if (originX == insets.left && originY == insets.top)
+			return;
+		Dimension size = frame.getSize();
+		int areaMaxX = size.width - insets.right;
+		int areaMaxY = size.height - insets.bottom;
+		int imageMaxX = originX + getImage().getWidth();
+		int imageMaxY = originY + getImage().getHeight();
+
+		graphics.setColor(Color.BLACK);
+		graphics.fillRect(insets.left, insets.top, originX - insets.left,
+				areaMaxY - insets.top);
+		graphics.fillRect(imageMaxX, insets.top, areaMaxX - imageMaxX,
+				areaMaxY - insets.top);
+		graphics.fillRect(originX, insets.top, imageMaxX - originX, originY
+				- insets.top);
+		graphics.fillRect(originX, imageMaxY, imageMaxX - originX, areaMaxY
+				- imageMaxY);
+	}
+
+	/**
+	 * Draws an area of the buffer in the given graphics context.
+	 * 
+	 * @param graphics
+	 *            Graphics context of the screen.
+	 * @param minX
+	 *            Left side of the area.
+	 * @param minY
+	 *            Upper side of the area.
+	 * @param maxX
+	 *            Right side of the area, exclusive.
+	 * @param maxY
+	 *            Lower side of the area, exclusive.
+	 */
+	private void drawBufferArea(final Graphics graphics, final int minX,
+			final int minY, final int maxX, final int maxY) {
+		graphics.drawImage(getImage(), originX + minX, originY + minY,
+				originX + maxX, originY + maxY, minX, minY, maxX, maxY, null);
+	}
+}
@@ -0,0 +1,148 @@
+package engine;
+
+/**
+ * Implements a reusable buffer of characters to compose text without
+ * creating new strings.
+ *
+ * @author <a href="mailto:RobertoIA1987@gmail.com">Roberto Izquierdo Amo</a>
+ *
+ */
+public final class TextBuffer {
+
+	/** Maximum number of characters. */
+	private static final int CAPACITY = 64;
+	/** Digits of a number, in reverse order. */
+	private static final int MAX_DIGITS = 10;
+
+	/** Characters of the text. */
+	private char[] chars;
+	/** Number of characters used. */
+	private int length;
+	/** Temporary storage for the digits of a number. */
+	private char[] digits;
+
+	/**
+	 * Constructor, creates an empty buffer.
+	 */
+	public TextBuffer() {
+		this.chars = new char[CAPACITY];
+		this.digits = new char[MAX_DIGITS];
+		this.length = 0;
+	}
+
+	/**
+	 * Empties the buffer.
+	 *
+	 * @return This buffer.
+	 */
+	public TextBuffer clear() {
+		this.length = 0;
+		return this;
+	}
+
+	/**
+	 * Appends a character.
+	 *
+	 * @param c
+	 *            Character to append.
+	 * @return This buffer.
+	 */
+	public TextBuffer append(final char c) {
+		if (this.length < CAPACITY)
+			this.chars[this.length++] = c;
+		return this;
+	}
+
+	/**
+	 * Appends a string.
+	 *
+	 * @param string
+	 *            String to append.
+	 * @return This buffer.
+	 */
+	public TextBuffer append(final String string) {
+		int count = Math.min(string.length(), CAPACITY - this.length);
+		string.getChars(0, count, this.chars, this.length);
+		this.length += count;
+		return this;
+	}
+
+	/**
+	 * Appends an integer.
+	 *
+	 * @param value
+	 *            Number to append.
+	 * @return This buffer.
+	 */
+	public TextBuffer append(final int value) {
+		return append(value, 1);
+	}
+
+	/**
+	 * Appends an integer, padded with zeros to a minimum number of digits.
+	 *
+	 * @param value
+	 *            Number to append.
+	 * @param minDigits
+	 *            Minimum number of digits.
+	 * @return This buffer.
+	 */
+	public TextBuffer append(final int value, final int minDigits) {
+		if (value == Integer.MIN_VALUE)
+			return append(Integer.toString(value));
+		if (value < 0)
+			append('-');
+
+		int remaining = Math.abs(value);
+		int count = 0;
+		do {
+			this.digits[count++] = (char) ('0' + remaining % 10);
+			remaining /= 10;
+		} while (remaining > 0);
+
+		for (int i = count; i < minDigits; i++)
+			append('0');
+		while (count > 0)
+			append(this.digits[--count]);
+		return this;
+	}
+
+	/**
+	 * Appends a number with two decimals, rounded half up.
+	 *
+	 * @param value
+	 *            Number to append.
+	 * @return This buffer.
+	 */
+	public TextBuffer appendDecimal(final float value) {
+		if (Float.isNaN(value))
+			return append("NaN");
+		if (Float.isInfinite(value))
+			return append(value > 0 ? "Infinity" : "-Infinity");
+
+		long hundredths = Math.round(Math.abs((double) value) * 100);
+		if (value < 0 && hundredths != 0)
+			append('-');
+		append((int) (hundredths / 100));
+		append('.');
+		return append((int) (hundredths % 100), 2);
+	}
+
+	/**
+	 * Getter for the characters of the text.
+	 *
+	 * @return Character array, only valid up to the length of the text.
+	 */
+	public char[] getChars() {
+		return this.chars;
+	}
+
+	/**
+	 * Getter for the length of the text.
+	 *
+	 * @return Number of characters.
+	 */
+	public int length() {
+		return this.length;
+	}
+}
@@ -0,0 +1,49 @@
+package engine;
+
+/**
+ * Game clock that only advances a fixed amount at the end of each
+ * simulation step, so the game behaves the same whatever the speed it is
+ * run at.
+ * 
+ * @author <a href="mailto:RobertoIA1987@gmail.com">Roberto Izquierdo Amo</a>
+ * 
+ */
+public final class TickClock implements GameClock {
+
+	/** Nanoseconds in a millisecond. */
+	private static final long NANOS_PER_MILLISECOND = 1000000L;
+
+	/** Game time advanced on each step, in nanoseconds. */
+	private long stepTime;
+	/** Current game time, in nanoseconds. */
+	private long time;
+
+	/**
+	 * Constructor, establishes the length of a step.
+	 * 
+	 * @param stepsPerSecond
+	 *            Simulation steps in a second of game time.
+	 */
+	public TickClock(final int stepsPerSecond) {
+		this.stepTime = NANOS_PER_MILLISECOND * 1000 / stepsPerSecond;
+		this.time = 0;
+	}
+
+	/**
+	 * Returns the game time elapsed in the steps run so far.
+	 * 
+	 * @return Game time in milliseconds.
+	 */
+	@Override
+	public long getTime() {
+		return this.time / NANOS_PER_MILLISECOND;
+	}
+
+	/**
+	 * Advances the time by one step.
+	 */
+	@Override
+	public void tick() {
+		this.time += this.stepTime;
+	}
+}
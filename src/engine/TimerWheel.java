@@ -0,0 +1,235 @@
+package engine;
+
+/**
+ * Schedules timers on a hierarchical wheel, so advancing the time only costs
+ * work for the timers that expire. The wheel has four levels of 64 slots,
+ * with a resolution of one millisecond in the first level; timers further
+ * away are moved down a level each time the level below completes a turn.
+ *
+ * @author <a href="mailto:RobertoIA1987@gmail.com">Roberto Izquierdo Amo</a>
+ *
+ */
+public final class TimerWheel {
+
+	/** Bits of the time used to index each level. */
+	private static final int SLOT_BITS = 6;
+	/** Slots in each level. */
+	private static final int SLOTS = 1 << SLOT_BITS;
+	/** Mask for the slot index. */
+	private static final int SLOT_MASK = SLOTS - 1;
+	/** Number of levels. */
+	private static final int LEVELS = 4;
+	/** Longest delay the wheel can hold, longer ones are re-scheduled. */
+	private static final long MAX_DELAY = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+	/**
+	 * Timer that can be scheduled on a wheel. Holds its own links, so
+	 * scheduling and cancelling allocate nothing.
+	 */
+	public abstract static class Timer {
+		/** Time the timer expires at. */
+		private long expiration;
+		/** Next timer in the same slot. */
+		private Timer next;
+		/** Previous timer in the same slot. */
+		private Timer previous;
+		/** Level of the slot holding the timer, -1 if about to fire. */
+		private int level;
+		/** Index of the slot holding the timer. */
+		private int slot;
+		/** Wheel the timer is scheduled on, null if not scheduled. */
+		private TimerWheel wheel;
+
+		/**
+		 * Called when the timer expires. May schedule the timer again.
+		 */
+		protected abstract void expire();
+
+		/**
+		 * Checks if the timer is waiting to expire.
+		 *
+		 * @return True if scheduled.
+		 */
+		public final boolean isScheduled() {
+			return this.wheel != null;
+		}
+	}
+
+	/** First timer in each slot, by level. */
+	private Timer[][] slots;
+	/** Timers expiring in the millisecond being processed. */
+	private Timer expiring;
+	/** Next millisecond to be processed. */
+	private long nextTime;
+	/** Number of scheduled timers. */
+	private int count;
+
+	/**
+	 * Constructor, establishes the starting time.
+	 *
+	 * @param time
+	 *            Current time, in milliseconds.
+	 */
+	public TimerWheel(final long time) {
+		this.slots = new Timer[LEVELS][SLOTS];
+		this.nextTime = time + 1;
+	}
+
+	/**
+	 * Returns the time the wheel has been advanced to.
+	 *
+	 * @return Current time, in milliseconds.
+	 */
+	public long getTime() {
+		return this.nextTime - 1;
+	}
+
+	/**
+	 * Schedules a timer, replacing its previous schedule if any.
+	 *
+	 * @param timer
+	 *            Timer to schedule.
+	 * @param delay
+	 *            Milliseconds from the current time until it expires.
+	 */
+	public void schedule(final Timer timer, final long delay) {
+		cancel(timer);
+		timer.expiration = getTime() + Math.max(0, delay);
+		timer.wheel = this;
+		insert(timer);
+		this.count++;
+	}
+
+	/**
+	 * Cancels a timer, if scheduled on this wheel.
+	 *
+	 * @param timer
+	 *            Timer to cancel.
+	 */
+	public void cancel(final Timer timer) {
+		if (timer.wheel != this)
+			return;
+		unlink(timer);
+		timer.wheel = null;
+		this.count--;
+	}
+
+	/**
+	 * Advances the time, firing every timer that expires on the way.
+	 *
+	 * @param time
+	 *            New current time, in milliseconds.
+	 */
+	public void advance(final long time) {
+		while (this.nextTime <= time) {
+			if (this.count == 0) {
+				this.nextTime = time + 1;
+				return;
+			}
+
+			int index = (int) (this.nextTime & SLOT_MASK);
+			// When a level completes a turn, the next one is moved down.
+			for (int level = 1; level < LEVELS && index == 0; level++) {
+				index = (int) (this.nextTime >>> (SLOT_BITS * level))
+						& SLOT_MASK;
+				cascade(level, index);
+			}
+
+			// Timers are taken out of the slot first, so the ones scheduled
+			// while firing wait for the next turn.
+			int slot = (int) (this.nextTime & SLOT_MASK);
+			this.expiring = this.slots[0][slot];
+			this.slots[0][slot] = null;
+			for (Timer timer = this.expiring; timer != null; timer = timer.next)
+				timer.level = -1;
+			this.nextTime++;
+
+			while (this.expiring != null) {
+				Timer timer = this.expiring;
+				unlink(timer);
+				timer.wheel = null;
+				this.count--;
+				timer.expire();
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of scheduled timers.
+	 *
+	 * @return Number of timers.
+	 */
+	public int size() {
+		return this.count;
+	}
+
+	/**
+	 * Puts a timer in the slot matching its expiration.
+	 *
+	 * @param timer
+	 *            Timer to insert.
+	 */
+	private void insert(final Timer timer) {
+		long delay = timer.expiration - this.nextTime;
+		long expiration = timer.expiration;
+		int level = 0;
+
+		if (delay < 0) {
+			expiration = this.nextTime;
+		} else {
+			if (delay > MAX_DELAY)
+				expiration = this.nextTime + MAX_DELAY;
+			delay = expiration - this.nextTime;
+			while (level < LEVELS - 1
+					&& delay >= 1L << (SLOT_BITS * (level + 1)))
+				level++;
+		}
+
+		int index = (int) (expiration >>> (SLOT_BITS * level)) & SLOT_MASK;
+		Timer head = this.slots[level][index];
+		timer.level = level;
+		timer.slot = index;
+		timer.previous = null;
+		timer.next = head;
+		if (head != null)
+			head.previous = timer;
+		this.slots[level][index] = timer;
+	}
+
+	/**
+	 * Removes a timer from its slot.
+	 *
+	 * @param timer
+	 *            Timer to remove.
+	 */
+	private void unlink(final Timer timer) {
+		if (timer.previous != null)
+			timer.previous.next = timer.next;
+		else if (timer.level < 0)
+			this.expiring = timer.next;
+		else
+			this.slots[timer.level][timer.slot] = timer.next;
+		if (timer.next != null)
+			timer.next.previous = timer.previous;
+		timer.next = null;
+		timer.previous = null;
+	}
+
+	/**
+	 * Moves the timers of a slot to the levels below.
+	 *
+	 * @param level
+	 *            Level of the slot.
+	 * @param index
+	 *            Index of the slot.
+	 */
+	private void cascade(final int level, final int index) {
+		Timer timer = this.slots[level][index];
+		this.slots[level][index] = null;
+		while (timer != null) {
+			Timer next = timer.next;
+			insert(timer);
+			timer = next;
+		}
+	}
+}
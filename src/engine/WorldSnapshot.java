@@ -0,0 +1,222 @@
+package engine;
+
+import java.awt.Color;
+
+import engine.DrawManager.SpriteType;
+import entity.Entity;
+
+/**
+ * Stores what has to be drawn in a frame of the game screen, so it can be
+ * drawn while the simulation goes on. Storage is allocated once and reused.
+ *
+ * @author <a href="mailto:RobertoIA1987@gmail.com">Roberto Izquierdo Amo</a>
+ *
+ */
+public final class WorldSnapshot {
+
+	/** Initial number of entities that fit in the snapshot. */
+	private static final int INITIAL_CAPACITY = 256;
+
+	/** Sprite of each entity. */
+	private SpriteType[] spriteTypes;
+	/** Color of each entity. */
+	private Color[] colors;
+	/** Position in the x-axis of each entity. */
+	private int[] positionX;
+	/** Position in the y-axis of each entity. */
+	private int[] positionY;
+	/** Number of entities. */
+	private int count;
+	/** Current score. */
+	private int score;
+	/** Player lives left. */
+	private int lives;
+	/** Countdown number to game start, negative if not shown. */
+	private int countdown;
+
+	/**
+	 * Constructor, allocates the storage.
+	 */
+	public WorldSnapshot() {
+		this.spriteTypes = new SpriteType[INITIAL_CAPACITY];
+		this.colors = new Color[INITIAL_CAPACITY];
+		this.positionX = new int[INITIAL_CAPACITY];
+		this.positionY = new int[INITIAL_CAPACITY];
+		this.countdown = -1;
+	}
+
+	/**
+	 * Removes every entity.
+	 */
+	public void clear() {
+		this.count = 0;
+	}
+
+	/**
+	 * Adds an entity at its current position.
+	 *
+	 * @param entity
+	 *            Entity to be drawn.
+	 */
+	public void add(final Entity entity) {
+		add(entity, entity.getPositionX(), entity.getPositionY());
+	}
+
+	/**
+	 * Adds an entity at a given position.
+	 *
+	 * @param entity
+	 *            Entity to be drawn.
+	 * @param drawPositionX
+	 *            Position to draw the entity at in the X axis.
+	 * @param drawPositionY
+	 *            Position to draw the entity at in the Y axis.
+	 */
+	public void add(final Entity entity, final int drawPositionX,
+			final int drawPositionY) {
+		add(entity.getSpriteType(), entity.getColor(), drawPositionX,
+				drawPositionY);
+	}
+
+	/**
+	 * Adds a sprite at a given position.
+	 *
+	 * @param spriteType
+	 *            Sprite to be drawn.
+	 * @param color
+	 *            Color of the sprite.
+	 * @param drawPositionX
+	 *            Position to draw the sprite at in the X axis.
+	 * @param drawPositionY
+	 *            Position to draw the sprite at in the Y axis.
+	 */
+	public void add(final SpriteType spriteType, final Color color,
+			final int drawPositionX, final int drawPositionY) {
+		if (this.count == this.spriteTypes.length)
+			grow();
+
+		this.spriteTypes[this.count] = spriteType;
+		this.colors[this.count] = color;
+		this.positionX[this.count] = drawPositionX;
+		this.positionY[this.count] = drawPositionY;
+		this.count++;
+	}
+
+	/**
+	 * Sets the interface values.
+	 *
+	 * @param newScore
+	 *            Current score.
+	 * @param newLives
+	 *            Player lives left.
+	 * @param newCountdown
+	 *            Countdown number to game start, negative if not shown.
+	 */
+	public void setInterface(final int newScore, final int newLives,
+			final int newCountdown) {
+		this.score = newScore;
+		this.lives = newLives;
+		this.countdown = newCountdown;
+	}
+
+	/**
+	 * Doubles the capacity of the snapshot.
+	 */
+	private void grow() {
+		int capacity = this.spriteTypes.length * 2;
+		SpriteType[] newSpriteTypes = new SpriteType[capacity];
+		Color[] newColors = new Color[capacity];
+		int[] newPositionX = new int[capacity];
+		int[] newPositionY = new int[capacity];
+
+		System.arraycopy(this.spriteTypes, 0, newSpriteTypes, 0, this.count);
+		System.arraycopy(this.colors, 0, newColors, 0, this.count);
+		System.arraycopy(this.positionX, 0, newPositionX, 0, this.count);
+		System.arraycopy(this.positionY, 0, newPositionY, 0, this.count);
+
+		this.spriteTypes = newSpriteTypes;
+		this.colors = newColors;
+		this.positionX = newPositionX;
+		this.positionY = newPositionY;
+	}
+
+	/**
+	 * Getter for the number of entities.
+	 *
+	 * @return Number of entities.
+	 */
+	public int getCount() {
+		return this.count;
+	}
+
+	/**
+	 * Getter for the sprite of an entity.
+	 *
+	 * @param index
+	 *            Index of the entity.
+	 * @return Sprite of the entity.
+	 */
+	public SpriteType getSpriteType(final int index) {
+		return this.spriteTypes[index];
+	}
+
+	/**
+	 * Getter for the color of an entity.
+	 *
+	 * @param index
+	 *            Index of the entity.
+	 * @return Color of the entity.
+	 */
+	public Color getColor(final int index) {
+		return this.colors[index];
+	}
+
+	/**
+	 * Getter for the position in the x-axis of an entity.
+	 *
+	 * @param index
+	 *            Index of the entity.
+	 * @return Position of the entity in the X axis.
+	 */
+	public int getPositionX(final int index) {
+		return this.positionX[index];
+	}
+
+	/**
+	 * Getter for the position in the y-axis of an entity.
+	 *
+	 * @param index
+	 *            Index of the entity.
+	 * @return Position of the entity in the Y axis.
+	 */
+	public int getPositionY(final int index) {
+		return this.positionY[index];
+	}
+
+	/**
+	 * Getter for the score.
+	 *
+	 * @return Current score.
+	 */
+	public int getScore() {
+		return this.score;
+	}
+
+	/**
+	 * Getter for the lives.
+	 *
+	 * @return Player lives left.
+	 */
+	public int getLives() {
+		return this.lives;
+	}
+
+	/**
+	 * Getter for the countdown.
+	 *
+	 * @return Countdown number to game start, negative if not shown.
+	 */
+	public int getCountdown() {
+		return this.countdown;
+	}
+}
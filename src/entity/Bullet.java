@@ -5,70 +5,49 @@ import java.awt.Color;
 import engine.DrawManager.SpriteType;
 
 /**
- * Implements a bullet that moves vertically up or down.
+ * Creates bullets that move vertically up or down. Bullets are kept as rows
+ * of an entity store, with their speed positive or negative depending on
+ * direction - positive is down.
  * 
  * @author <a href="mailto:RobertoIA1987@gmail.com">Roberto Izquierdo Amo</a>
  * 
  */
-public class Bullet extends Entity {
+public final class Bullet {
+
+	/** Width of a bullet. */
+	private static final int WIDTH = 3 * 2;
+	/** Height of a bullet. */
+	private static final int HEIGHT = 5 * 2;
 
 	/**
-	 * Speed of the bullet, positive or negative depending on direction -
-	 * positive is down.
+	 * Constructor, not called.
 	 */
-	private int speed;
+	private Bullet() {
+
+	}
 
 	/**
-	 * Constructor, establishes the bullet's properties.
+	 * Adds a bullet to a store, with the sprite that matches its direction.
 	 * 
+	 * @param bullets
+	 *            Store of the bullets on screen.
 	 * @param positionX
-	 *            Initial position of the bullet in the X axis.
+	 *            Position of the center of the bullet in the X axis.
 	 * @param positionY
 	 *            Initial position of the bullet in the Y axis.
 	 * @param speed
 	 *            Speed of the bullet, positive or negative depending on
 	 *            direction - positive is down.
+	 * @return Row of the new bullet.
 	 */
-	public Bullet(final int positionX, final int positionY, final int speed) {
-		super(positionX, positionY, 3 * 2, 5 * 2, Color.WHITE);
-
-		this.speed = speed;
-		setSprite();
-	}
-
-	/**
-	 * Sets correct sprite for the bullet, based on speed.
-	 */
-	public final void setSprite() {
+	public static int shoot(final EntityStore bullets, final int positionX,
+			final int positionY, final int speed) {
+		SpriteType spriteType;
 		if (speed < 0)
-			this.spriteType = SpriteType.Bullet;
+			spriteType = SpriteType.Bullet;
 		else
-			this.spriteType = SpriteType.EnemyBullet;
-	}
-
-	/**
-	 * Updates the bullet's position.
-	 */
-	public final void update() {
-		this.positionY += this.speed;
-	}
-
-	/**
-	 * Setter of the speed of the bullet.
-	 * 
-	 * @param speed
-	 *            New speed of the bullet.
-	 */
-	public final void setSpeed(final int speed) {
-		this.speed = speed;
-	}
-
-	/**
-	 * Getter for the speed of the bullet.
-	 * 
-	 * @return Speed of the bullet.
-	 */
-	public final int getSpeed() {
-		return this.speed;
+			spriteType = SpriteType.EnemyBullet;
+		return bullets.add(positionX - WIDTH / 2, positionY, WIDTH, HEIGHT,
+				speed, spriteType, Color.WHITE, 0);
 	}
 }
@@ -2,8 +2,6 @@ package entity;
 
 import java.awt.Color;
 
-import engine.Cooldown;
-import engine.Core;
 import engine.DrawManager.SpriteType;
 
 /**
@@ -22,51 +20,16 @@ public class EnemyShip extends Entity {
 	private static final int C_TYPE_POINTS = 30;
 	/** Point value of a bonus enemy. */
 	private static final int BONUS_TYPE_POINTS = 100;
+	/** Width of a formation ship. */
+	static final int WIDTH = 12 * 2;
+	/** Height of a formation ship. */
+	static final int HEIGHT = 8 * 2;
 
-	/** Cooldown between sprite changes. */
-	private Cooldown animationCooldown;
 	/** Checks if the ship has been hit by a bullet. */
 	private boolean isDestroyed;
 	/** Values of the ship, in points, when destroyed. */
 	private int pointValue;
 
-	/**
-	 * Constructor, establishes the ship's properties.
-	 * 
-	 * @param positionX
-	 *            Initial position of the ship in the X axis.
-	 * @param positionY
-	 *            Initial position of the ship in the Y axis.
-	 * @param spriteType
-	 *            Sprite type, image corresponding to the ship.
-	 */
-	public EnemyShip(final int positionX, final int positionY,
-			final SpriteType spriteType) {
-		super(positionX, positionY, 12 * 2, 8 * 2, Color.WHITE);
-
-		this.spriteType = spriteType;
-		this.animationCooldown = Core.getCooldown(500);
-		this.isDestroyed = false;
-
-		switch (this.spriteType) {
-		case EnemyShipA1:
-		case EnemyShipA2:
-			this.pointValue = A_TYPE_POINTS;
-			break;
-		case EnemyShipB1:
-		case EnemyShipB2:
-			this.pointValue = B_TYPE_POINTS;
-			break;
-		case EnemyShipC1:
-		case EnemyShipC2:
-			this.pointValue = C_TYPE_POINTS;
-			break;
-		default:
-			this.pointValue = 0;
-			break;
-		}
-	}
-
 	/**
 	 * Constructor, establishes the ship's properties for a special ship, with
 	 * known starting properties.
@@ -101,38 +64,6 @@ public class EnemyShip extends Entity {
 		this.positionY += distanceY;
 	}
 
-	/**
-	 * Updates attributes, mainly used for animation purposes.
-	 */
-	public final void update() {
-		if (this.animationCooldown.checkFinished()) {
-			this.animationCooldown.reset();
-
-			switch (this.spriteType) {
-			case EnemyShipA1:
-				this.spriteType = SpriteType.EnemyShipA2;
-				break;
-			case EnemyShipA2:
-				this.spriteType = SpriteType.EnemyShipA1;
-				break;
-			case EnemyShipB1:
-				this.spriteType = SpriteType.EnemyShipB2;
-				break;
-			case EnemyShipB2:
-				this.spriteType = SpriteType.EnemyShipB1;
-				break;
-			case EnemyShipC1:
-				this.spriteType = SpriteType.EnemyShipC2;
-				break;
-			case EnemyShipC2:
-				this.spriteType = SpriteType.EnemyShipC1;
-				break;
-			default:
-				break;
-			}
-		}
-	}
-
 	/**
 	 * Destroys the ship, causing an explosion.
 	 */
@@ -149,4 +80,54 @@ public class EnemyShip extends Entity {
 	public final boolean isDestroyed() {
 		return this.isDestroyed;
 	}
+
+	/**
+	 * Returns the score bonus for destroying a formation ship.
+	 * 
+	 * @param spriteType
+	 *            Sprite type, image corresponding to the ship.
+	 * @return Value of the ship.
+	 */
+	static int getPointValue(final SpriteType spriteType) {
+		switch (spriteType) {
+		case EnemyShipA1:
+		case EnemyShipA2:
+			return A_TYPE_POINTS;
+		case EnemyShipB1:
+		case EnemyShipB2:
+			return B_TYPE_POINTS;
+		case EnemyShipC1:
+		case EnemyShipC2:
+			return C_TYPE_POINTS;
+		default:
+			return 0;
+		}
+	}
+
+	/**
+	 * Returns the next animation frame of a formation ship. The formation
+	 * decides when, so all its ships change together.
+	 * 
+	 * @param spriteType
+	 *            Current sprite type of the ship.
+	 * @return Sprite type of the next frame.
+	 */
+	static SpriteType getNextFrame(final SpriteType spriteType) {
+		switch (spriteType) {
+		case EnemyShipA1:
+			return SpriteType.EnemyShipA2;
+		case EnemyShipA2:
+			return SpriteType.EnemyShipA1;
+		case EnemyShipB1:
+			return SpriteType.EnemyShipB2;
+		case EnemyShipB2:
+			return SpriteType.EnemyShipB1;
+		case EnemyShipC1:
+			return SpriteType.EnemyShipC2;
+		case EnemyShipC2:
+			return SpriteType.EnemyShipC1;
+		default:
+			return spriteType;
+		}
+	}
 }
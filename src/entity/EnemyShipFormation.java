@@ -1,26 +1,29 @@
 package entity;
 
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.Iterator;
-import java.util.List;
-import java.util.Set;
+import java.awt.Color;
+import java.util.Arrays;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import screen.Screen;
 import engine.Cooldown;
 import engine.Core;
+import engine.DirtyRegion;
 import engine.DrawManager;
 import engine.DrawManager.SpriteType;
 import engine.GameSettings;
+import engine.TimerWheel;
+import engine.WorldSnapshot;
 
 /**
- * Groups enemy ships into a formation that moves together.
+ * Groups enemy ships into a formation that moves together. The ships are
+ * kept in an entity store; each one is known by its place in the formation,
+ * column first, which it keeps until it is removed.
  * 
  * @author <a href="mailto:RobertoIA1987@gmail.com">Roberto Izquierdo Amo</a>
  * 
  */
-public class EnemyShipFormation implements Iterable<EnemyShip> {
+public class EnemyShipFormation {
 
 	/** Initial position in the x-axis. */
 	private static final int INIT_POS_X = 20;
@@ -48,6 +51,8 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
 	private static final int DESCENT_DISTANCE = 20;
 	/** Minimum speed allowed. */
 	private static final int MINIMUM_SPEED = 10;
+	/** Minimum time between sprite changes of the ships. */
+	private static final int ANIMATION_INTERVAL = 500;
 
 	/** DrawManager instance. */
 	private DrawManager drawManager;
@@ -56,10 +61,24 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
 	/** Screen to draw ships on. */
 	private Screen screen;
 
-	/** List of enemy ships forming the formation. */
-	private List<List<EnemyShip>> enemyShips;
-	/** Minimum time between shots. */
-	private Cooldown shootingCooldown;
+	/** Enemy ships forming the formation, with their place as id. */
+	private EntityStore ships;
+	/** Row of the ship in each place, -1 once removed. */
+	private int[] rowOfPlace;
+	/** Value in points of the ship in each place. */
+	private int[] pointValues;
+	/** Timers of the screen the formation is on. */
+	private TimerWheel timerWheel;
+	/** Ends the minimum time between shots. */
+	private TimerWheel.Timer shootingTimer;
+	/** Ends the minimum time between sprite changes, shared by all ships. */
+	private TimerWheel.Timer animationTimer;
+	/** Checks if the shooting timer was started. */
+	private boolean isShootingStarted;
+	/** Checks if the minimum time since the last shot has passed. */
+	private boolean canShoot;
+	/** Checks if the ships change sprite on their next movement. */
+	private boolean isAnimationDue;
 	/** Number of ships in the formation - horizontally. */
 	private int nShipsWide;
 	/** Number of ships in the formation - vertically. */
@@ -86,14 +105,32 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
 	private int positionX;
 	/** Position in the y-axis of the upper left corner of the formation. */
 	private int positionY;
+	/** Position in the x-axis of the first place of the formation. */
+	private int originX;
+	/** Position in the y-axis of the first place of the formation. */
+	private int originY;
 	/** Width of one ship. */
 	private int shipWidth;
 	/** Height of one ship. */
 	private int shipHeight;
-	/** List of ships that are able to shoot. */
-	private List<EnemyShip> shooters;
+	/** Places of the ships that are able to shoot. */
+	private int[] shooters;
+	/** Number of ships that are able to shoot. */
+	private int shooterCount;
 	/** Number of not destroyed ships. */
 	private int shipCount;
+	/** Checks if any ship moved or changed since the last drawing. */
+	private boolean hasChanged;
+	/** Checks if the formation is currently drawn on screen. */
+	private boolean isDrawn;
+	/** Left side of the area the formation was last drawn on. */
+	private int drawnMinX;
+	/** Upper side of the area the formation was last drawn on. */
+	private int drawnMinY;
+	/** Right side of the area the formation was last drawn on. */
+	private int drawnMaxX;
+	/** Lower side of the area the formation was last drawn on. */
+	private int drawnMaxY;
 
 	/** Directions the formation can move. */
 	private enum Direction {
@@ -114,7 +151,8 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
 	public EnemyShipFormation(final GameSettings gameSettings) {
 		this.drawManager = Core.getDrawManager();
 		this.logger = Core.getLogger();
-		this.enemyShips = new ArrayList<List<EnemyShip>>();
+		this.ships = new EntityStore(gameSettings.getFormationWidth()
+				* gameSettings.getFormationHeight());
 		this.currentDirection = Direction.RIGHT;
 		this.movementInterval = 0;
 		this.nShipsWide = gameSettings.getFormationWidth();
@@ -126,17 +164,30 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
 		this.movementSpeed = this.baseSpeed;
 		this.positionX = INIT_POS_X;
 		this.positionY = INIT_POS_Y;
-		this.shooters = new ArrayList<EnemyShip>();
+		this.originX = INIT_POS_X;
+		this.originY = INIT_POS_Y;
+		this.rowOfPlace = new int[this.nShipsWide * this.nShipsHigh];
+		this.pointValues = new int[this.nShipsWide * this.nShipsHigh];
+		this.shooters = new int[this.nShipsWide];
+		this.isAnimationDue = true;
+		this.shootingTimer = new TimerWheel.Timer() {
+			@Override
+			protected void expire() {
+				canShoot = true;
+			}
+		};
+		this.animationTimer = new TimerWheel.Timer() {
+			@Override
+			protected void expire() {
+				isAnimationDue = true;
+			}
+		};
 		SpriteType spriteType;
 
 		this.logger.info("Initializing " + nShipsWide + "x" + nShipsHigh
 				+ " ship formation in (" + positionX + "," + positionY + ")");
 
-		// Each sub-list is a column on the formation.
-		for (int i = 0; i < this.nShipsWide; i++)
-			this.enemyShips.add(new ArrayList<EnemyShip>());
-
-		for (List<EnemyShip> column : this.enemyShips) {
+		for (int column = 0; column < this.nShipsWide; column++) {
 			for (int i = 0; i < this.nShipsHigh; i++) {
 				if (i / (float) this.nShipsHigh < PROPORTION_C)
 					spriteType = SpriteType.EnemyShipC1;
@@ -146,24 +197,27 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
 				else
 					spriteType = SpriteType.EnemyShipA1;
 
-				column.add(new EnemyShip((SEPARATION_DISTANCE 
-						* this.enemyShips.indexOf(column))
-								+ positionX, (SEPARATION_DISTANCE * i)
-								+ positionY, spriteType));
+				int place = column * this.nShipsHigh + i;
+				this.rowOfPlace[place] = this.ships.add((SEPARATION_DISTANCE
+						* column) + positionX, (SEPARATION_DISTANCE * i)
+						+ positionY, EnemyShip.WIDTH, EnemyShip.HEIGHT, 0,
+						spriteType, Color.WHITE, place);
+				this.pointValues[place] = EnemyShip.getPointValue(spriteType);
 				this.shipCount++;
 			}
 		}
 
-		this.shipWidth = this.enemyShips.get(0).get(0).getWidth();
-		this.shipHeight = this.enemyShips.get(0).get(0).getHeight();
+		this.shipWidth = EnemyShip.WIDTH;
+		this.shipHeight = EnemyShip.HEIGHT;
 
 		this.width = (this.nShipsWide - 1) * SEPARATION_DISTANCE
 				+ this.shipWidth;
 		this.height = (this.nShipsHigh - 1) * SEPARATION_DISTANCE
 				+ this.shipHeight;
 
-		for (List<EnemyShip> column : this.enemyShips)
-			this.shooters.add(column.get(column.size() - 1));
+		for (int column = 0; column < this.nShipsWide; column++)
+			this.shooters[this.shooterCount++] = column * this.nShipsHigh
+					+ this.nShipsHigh - 1;
 	}
 
 	/**
@@ -174,26 +228,129 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
 	 */
 	public final void attach(final Screen newScreen) {
 		screen = newScreen;
+		timerWheel = newScreen.getTimerWheel();
 	}
 
 	/**
 	 * Draws every individual component of the formation.
 	 */
 	public final void draw() {
-		for (List<EnemyShip> column : this.enemyShips)
-			for (EnemyShip enemyShip : column)
-				drawManager.drawEntity(enemyShip, enemyShip.getPositionX(),
-						enemyShip.getPositionY());
+		// The formation moves in steps, it is not interpolated.
+		this.ships.draw(drawManager, 1);
+	}
+
+	/**
+	 * Adds every individual component of the formation to a snapshot.
+	 * 
+	 * @param snapshot
+	 *            Snapshot to be drawn.
+	 */
+	public final void addTo(final WorldSnapshot snapshot) {
+		this.ships.addTo(snapshot, 1);
+	}
+
+	/**
+	 * Finds the ship, not yet destroyed, colliding with an area. The ships
+	 * keep their place in the formation as it moves, so only the places the
+	 * area overlaps are checked, however many ships there are.
+	 * 
+	 * @param areaX
+	 *            Position of the area in the X axis.
+	 * @param areaY
+	 *            Position of the area in the Y axis.
+	 * @param areaWidth
+	 *            Width of the area.
+	 * @param areaHeight
+	 *            Height of the area.
+	 * @param spriteType
+	 *            Sprite drawn on the area, checked pixel by pixel.
+	 * @return Place of the colliding ship, -1 if none.
+	 */
+	public final int getShipHitBy(final int areaX, final int areaY,
+			final int areaWidth, final int areaHeight,
+			final SpriteType spriteType) {
+		int left = areaX - this.originX;
+		int top = areaY - this.originY;
+		// First and last places whose ship area overlaps the given one.
+		int minColumn = Math.max(0, Math.floorDiv(left - this.shipWidth,
+				SEPARATION_DISTANCE) + 1);
+		int maxColumn = Math.min(this.nShipsWide - 1, Math.floorDiv(left
+				+ areaWidth - 1, SEPARATION_DISTANCE));
+		int minRow = Math.max(0, Math.floorDiv(top - this.shipHeight,
+				SEPARATION_DISTANCE) + 1);
+		int maxRow = Math.min(this.nShipsHigh - 1, Math.floorDiv(top
+				+ areaHeight - 1, SEPARATION_DISTANCE));
+
+		for (int column = minColumn; column <= maxColumn; column++)
+			for (int row = minRow; row <= maxRow; row++) {
+				int place = column * this.nShipsHigh + row;
+				int shipRow = this.rowOfPlace[place];
+				if (shipRow >= 0 && this.ships.isAlive(shipRow)
+						&& this.ships.collidesWith(shipRow, areaX, areaY,
+								areaWidth, areaHeight, spriteType))
+					return place;
+			}
+		return -1;
+	}
+
+	/**
+	 * Getter for the score bonus if a ship is destroyed.
+	 * 
+	 * @param place
+	 *            Place of the ship.
+	 * @return Value of the ship.
+	 */
+	public final int getPointValue(final int place) {
+		return this.pointValues[place];
+	}
+
+	/**
+	 * Marks the areas of the screen that have to be drawn again if any ship
+	 * moved or changed since the formation was last drawn.
+	 * 
+	 * @param dirtyRegion
+	 *            Areas of the screen that changed.
+	 */
+	public final void reportDamage(final DirtyRegion dirtyRegion) {
+		if (this.isDrawn && !this.hasChanged)
+			return;
+
+		if (this.isDrawn)
+			dirtyRegion.add(this.drawnMinX, this.drawnMinY, this.drawnMaxX
+					- this.drawnMinX, this.drawnMaxY - this.drawnMinY);
+
+		int minX = Integer.MAX_VALUE;
+		int minY = Integer.MAX_VALUE;
+		int maxX = Integer.MIN_VALUE;
+		int maxY = Integer.MIN_VALUE;
+		for (int row = 0; row < this.ships.size(); row++) {
+			minX = Math.min(minX, this.ships.getPositionX(row));
+			minY = Math.min(minY, this.ships.getPositionY(row));
+			maxX = Math.max(maxX, this.ships.getPositionX(row)
+					+ this.ships.getWidth(row));
+			maxY = Math.max(maxY, this.ships.getPositionY(row)
+					+ this.ships.getHeight(row));
+		}
+
+		this.isDrawn = minX <= maxX;
+		if (this.isDrawn) {
+			dirtyRegion.add(minX, minY, maxX - minX, maxY - minY);
+			this.drawnMinX = minX;
+			this.drawnMinY = minY;
+			this.drawnMaxX = maxX;
+			this.drawnMaxY = maxY;
+		}
+		this.hasChanged = false;
 	}
 
 	/**
 	 * Updates the position of the ships.
 	 */
 	public final void update() {
-		if(this.shootingCooldown == null) {
-			this.shootingCooldown = Core.getVariableCooldown(shootingInterval,
-					shootingVariance);
-			this.shootingCooldown.reset();
+		if (!this.isShootingStarted) {
+			this.isShootingStarted = true;
+			this.timerWheel.schedule(this.shootingTimer, Cooldown
+					.getVariableDuration(shootingInterval, shootingVariance));
 		}
 		
 		cleanUp();
@@ -209,6 +366,7 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
 		movementInterval++;
 		if (movementInterval >= this.movementSpeed) {
 			movementInterval = 0;
+			this.hasChanged = true;
 
 			boolean isAtBottom = positionY
 					+ this.height > screen.getHeight() - BOTTOM_MARGIN;
@@ -221,30 +379,30 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
 				if (isAtHorizontalAltitude)
 					if (previousDirection == Direction.RIGHT) {
 						currentDirection = Direction.LEFT;
-						this.logger.info("Formation now moving left 1");
+						this.logger.fine("Formation now moving left 1");
 					} else {
 						currentDirection = Direction.RIGHT;
-						this.logger.info("Formation now moving right 2");
+						this.logger.fine("Formation now moving right 2");
 					}
 			} else if (currentDirection == Direction.LEFT) {
 				if (isAtLeftSide)
 					if (!isAtBottom) {
 						previousDirection = currentDirection;
 						currentDirection = Direction.DOWN;
-						this.logger.info("Formation now moving down 3");
+						this.logger.fine("Formation now moving down 3");
 					} else {
 						currentDirection = Direction.RIGHT;
-						this.logger.info("Formation now moving right 4");
+						this.logger.fine("Formation now moving right 4");
 					}
 			} else {
 				if (isAtRightSide)
 					if (!isAtBottom) {
 						previousDirection = currentDirection;
 						currentDirection = Direction.DOWN;
-						this.logger.info("Formation now moving down 5");
+						this.logger.fine("Formation now moving down 5");
 					} else {
 						currentDirection = Direction.LEFT;
-						this.logger.info("Formation now moving left 6");
+						this.logger.fine("Formation now moving left 6");
 					}
 			}
 
@@ -257,128 +415,116 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
 
 			positionX += movementX;
 			positionY += movementY;
+			this.originX += movementX;
+			this.originY += movementY;
 
 			// Cleans explosions.
-			List<EnemyShip> destroyed;
-			for (List<EnemyShip> column : this.enemyShips) {
-				destroyed = new ArrayList<EnemyShip>();
-				for (EnemyShip ship : column) {
-					if (ship != null && ship.isDestroyed()) {
-						destroyed.add(ship);
-						this.logger.info("Removed enemy "
-								+ column.indexOf(ship) + " from column "
-								+ this.enemyShips.indexOf(column));
-					}
-				}
-				column.removeAll(destroyed);
+			if (this.logger.isLoggable(Level.FINE))
+				for (int row = 0; row < this.ships.size(); row++)
+					if (!this.ships.isAlive(row))
+						this.logger.fine("Removed enemy "
+								+ this.ships.getId(row) % this.nShipsHigh
+								+ " from column " + this.ships.getId(row)
+								/ this.nShipsHigh);
+			if (this.ships.compact() > 0) {
+				Arrays.fill(this.rowOfPlace, -1);
+				for (int row = 0; row < this.ships.size(); row++)
+					this.rowOfPlace[this.ships.getId(row)] = row;
 			}
 
-			for (List<EnemyShip> column : this.enemyShips)
-				for (EnemyShip enemyShip : column) {
-					enemyShip.move(movementX, movementY);
-					enemyShip.update();
-				}
+			boolean animate = this.isAnimationDue;
+			if (animate) {
+				this.isAnimationDue = false;
+				this.timerWheel.schedule(this.animationTimer,
+						ANIMATION_INTERVAL);
+			}
+
+			this.ships.move(movementX, movementY);
+			if (animate)
+				for (int row = 0; row < this.ships.size(); row++)
+					this.ships.setSpriteType(row, EnemyShip
+							.getNextFrame(this.ships.getSpriteType(row)));
 		}
 	}
 
 	/**
-	 * Cleans empty columns, adjusts the width and height of the formation.
+	 * Adjusts the position, width and height of the formation to the ships
+	 * left.
 	 */
 	private void cleanUp() {
-		Set<Integer> emptyColumns = new HashSet<Integer>();
-		int maxColumn = 0;
-		int minPositionY = Integer.MAX_VALUE;
-		for (List<EnemyShip> column : this.enemyShips) {
-			if (!column.isEmpty()) {
-				// Height of this column
-				int columnSize = column.get(column.size() - 1).positionY
-						- this.positionY + this.shipHeight;
-				maxColumn = Math.max(maxColumn, columnSize);
-				minPositionY = Math.min(minPositionY, column.get(0)
-						.getPositionY());
-			} else {
-				// Empty column, we remove it.
-				emptyColumns.add(this.enemyShips.indexOf(column));
-			}
-		}
-		for (int index : emptyColumns) {
-			this.enemyShips.remove(index);
-			logger.info("Removed column " + index);
-		}
-
-		int leftMostPoint = 0;
-		int rightMostPoint = 0;
-		
-		for (List<EnemyShip> column : this.enemyShips) {
-			if (!column.isEmpty()) {
-				if (leftMostPoint == 0)
-					leftMostPoint = column.get(0).getPositionX();
-				rightMostPoint = column.get(0).getPositionX();
-			}
+		if (this.ships.size() == 0)
+			return;
+
+		int minX = Integer.MAX_VALUE;
+		int minY = Integer.MAX_VALUE;
+		int maxX = Integer.MIN_VALUE;
+		int maxY = Integer.MIN_VALUE;
+		for (int row = 0; row < this.ships.size(); row++) {
+			minX = Math.min(minX, this.ships.getPositionX(row));
+			minY = Math.min(minY, this.ships.getPositionY(row));
+			maxX = Math.max(maxX, this.ships.getPositionX(row));
+			maxY = Math.max(maxY, this.ships.getPositionY(row));
 		}
 
-		this.width = rightMostPoint - leftMostPoint + this.shipWidth;
-		this.height = maxColumn;
+		this.width = maxX - minX + this.shipWidth;
+		this.height = maxY - minY + this.shipHeight;
 
-		this.positionX = leftMostPoint;
-		this.positionY = minPositionY;
+		this.positionX = minX;
+		this.positionY = minY;
 	}
 
 	/**
 	 * Shoots a bullet downwards.
 	 * 
 	 * @param bullets
-	 *            Bullets set to add the bullet being shot.
+	 *            Bullets on screen, to add the bullet being shot.
 	 */
-	public final void shoot(final Set<Bullet> bullets) {
+	public final void shoot(final EntityStore bullets) {
 		// For now, only ships in the bottom row are able to shoot.
-		int index = (int) (Math.random() * this.shooters.size());
-		EnemyShip shooter = this.shooters.get(index);
-
-		if (this.shootingCooldown.checkFinished()) {
-			this.shootingCooldown.reset();
-			bullets.add(BulletPool.getBullet(shooter.getPositionX()
-					+ shooter.width / 2, shooter.getPositionY(), BULLET_SPEED));
+		int index = (int) (Math.random() * this.shooterCount);
+		int shooter = this.rowOfPlace[this.shooters[index]];
+
+		if (this.canShoot) {
+			this.canShoot = false;
+			this.timerWheel.schedule(this.shootingTimer, Cooldown
+					.getVariableDuration(shootingInterval, shootingVariance));
+			Bullet.shoot(bullets, this.ships.getPositionX(shooter)
+					+ this.ships.getWidth(shooter) / 2,
+					this.ships.getPositionY(shooter), BULLET_SPEED);
 		}
 	}
 
 	/**
 	 * Destroys a ship.
 	 * 
-	 * @param destroyedShip
-	 *            Ship to be destroyed.
+	 * @param place
+	 *            Place of the ship to be destroyed.
 	 */
-	public final void destroy(final EnemyShip destroyedShip) {
-		for (List<EnemyShip> column : this.enemyShips)
-			for (int i = 0; i < column.size(); i++)
-				if (column.get(i).equals(destroyedShip)) {
-					column.get(i).destroy();
-					this.logger.info("Destroyed ship in ("
-							+ this.enemyShips.indexOf(column) + "," + i + ")");
-				}
+	public final void destroy(final int place) {
+		this.hasChanged = true;
+		int row = this.rowOfPlace[place];
+		this.ships.kill(row);
+		this.ships.setSpriteType(row, SpriteType.Explosion);
+		if (this.logger.isLoggable(Level.FINE))
+			this.logger.fine("Destroyed ship in (" + place / this.nShipsHigh
+					+ "," + place % this.nShipsHigh + ")");
 
 		// Updates the list of ships that can shoot the player.
-		if (this.shooters.contains(destroyedShip)) {
-			int destroyedShipIndex = this.shooters.indexOf(destroyedShip);
-			int destroyedShipColumnIndex = -1;
-
-			for (List<EnemyShip> column : this.enemyShips)
-				if (column.contains(destroyedShip)) {
-					destroyedShipColumnIndex = this.enemyShips.indexOf(column);
-					break;
+		for (int i = 0; i < this.shooterCount; i++)
+			if (this.shooters[i] == place) {
+				int nextShooter = getNextShooter(place / this.nShipsHigh);
+				if (nextShooter >= 0)
+					this.shooters[i] = nextShooter;
+				else {
+					System.arraycopy(this.shooters, i + 1, this.shooters, i,
+							this.shooterCount - i - 1);
+					this.shooterCount--;
+					if (this.logger.isLoggable(Level.FINE))
+						this.logger.fine("Shooters list reduced to "
+								+ this.shooterCount + " members.");
 				}
-
-			EnemyShip nextShooter = getNextShooter(this.enemyShips
-					.get(destroyedShipColumnIndex));
-
-			if (nextShooter != null)
-				this.shooters.set(destroyedShipIndex, nextShooter);
-			else {
-				this.shooters.remove(destroyedShipIndex);
-				this.logger.info("Shooters list reduced to "
-						+ this.shooters.size() + " members.");
+				break;
 			}
-		}
 
 		this.shipCount--;
 	}
@@ -388,34 +534,16 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
 	 * 
 	 * @param column
 	 *            Column to search.
-	 * @return New shooter ship.
+	 * @return Place of the new shooter ship, -1 if none.
 	 */
-	public final EnemyShip getNextShooter(final List<EnemyShip> column) {
-		Iterator<EnemyShip> iterator = column.iterator();
-		EnemyShip nextShooter = null;
-		while (iterator.hasNext()) {
-			EnemyShip checkShip = iterator.next();
-			if (checkShip != null && !checkShip.isDestroyed())
-				nextShooter = checkShip;
+	private int getNextShooter(final int column) {
+		for (int i = this.nShipsHigh - 1; i >= 0; i--) {
+			int place = column * this.nShipsHigh + i;
+			int row = this.rowOfPlace[place];
+			if (row >= 0 && this.ships.isAlive(row))
+				return place;
 		}
-
-		return nextShooter;
-	}
-
-	/**
-	 * Returns an iterator over the ships in the formation.
-	 * 
-	 * @return Iterator over the enemy ships.
-	 */
-	@Override
-	public final Iterator<EnemyShip> iterator() {
-		Set<EnemyShip> enemyShipsList = new HashSet<EnemyShip>();
-
-		for (List<EnemyShip> column : this.enemyShips)
-			for (EnemyShip enemyShip : column)
-				enemyShipsList.add(enemyShip);
-
-		return enemyShipsList.iterator();
+		return -1;
 	}
 
 	/**
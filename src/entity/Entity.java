@@ -2,6 +2,8 @@ package entity;
 
 import java.awt.Color;
 
+import engine.Core;
+import engine.DirtyRegion;
 import engine.DrawManager.SpriteType;
 
 /**
@@ -16,6 +18,10 @@ public class Entity {
 	protected int positionX;
 	/** Position in the y-axis of the upper left corner of the entity. */
 	protected int positionY;
+	/** Position in the x-axis before the current simulation step. */
+	private int previousPositionX;
+	/** Position in the y-axis before the current simulation step. */
+	private int previousPositionY;
 	/** Width of the entity. */
 	protected int width;
 	/** Height of the entity. */
@@ -24,6 +30,14 @@ public class Entity {
 	private Color color;
 	/** Sprite type assigned to the entity. */
 	protected SpriteType spriteType;
+	/** Checks if the entity is currently drawn on screen. */
+	private boolean isDrawn;
+	/** Position in the x-axis where the entity was last drawn. */
+	private int drawnPositionX;
+	/** Position in the y-axis where the entity was last drawn. */
+	private int drawnPositionY;
+	/** Sprite type the entity was last drawn as. */
+	private SpriteType drawnSpriteType;
 
 	/**
 	 * Constructor, establishes the entity's generic properties.
@@ -43,11 +57,79 @@ public class Entity {
 			final int height, final Color color) {
 		this.positionX = positionX;
 		this.positionY = positionY;
+		this.previousPositionX = positionX;
+		this.previousPositionY = positionY;
 		this.width = width;
 		this.height = height;
 		this.color = color;
 	}
 
+	/**
+	 * Checks if the entity is colliding with a sprite, pixel by pixel. The
+	 * pixels are only compared once the areas collide.
+	 * 
+	 * @param otherPositionX
+	 *            Position of the sprite in the X axis.
+	 * @param otherPositionY
+	 *            Position of the sprite in the Y axis.
+	 * @param otherWidth
+	 *            Width of the sprite.
+	 * @param otherHeight
+	 *            Height of the sprite.
+	 * @param otherSpriteType
+	 *            Sprite to check against.
+	 * @return Result of the collision test.
+	 */
+	public final boolean collidesWith(final int otherPositionX,
+			final int otherPositionY, final int otherWidth,
+			final int otherHeight, final SpriteType otherSpriteType) {
+		return collide(this.positionX, this.positionY, this.width,
+				this.height, otherPositionX, otherPositionY, otherWidth,
+				otherHeight)
+				&& Core.getCollisionMasks().overlap(this.spriteType,
+						this.positionX, this.positionY, otherSpriteType,
+						otherPositionX, otherPositionY);
+	}
+
+	/**
+	 * Checks if two areas are colliding, whatever their sprites.
+	 * 
+	 * @param positionAX
+	 *            Position of the first area in the X axis.
+	 * @param positionAY
+	 *            Position of the first area in the Y axis.
+	 * @param widthA
+	 *            Width of the first area.
+	 * @param heightA
+	 *            Height of the first area.
+	 * @param positionBX
+	 *            Position of the second area in the X axis.
+	 * @param positionBY
+	 *            Position of the second area in the Y axis.
+	 * @param widthB
+	 *            Width of the second area.
+	 * @param heightB
+	 *            Height of the second area.
+	 * @return Result of the collision test.
+	 */
+	public static boolean collide(final int positionAX, final int positionAY,
+			final int widthA, final int heightA, final int positionBX,
+			final int positionBY, final int widthB, final int heightB) {
+		// Calculate center point of the entities in both axis.
+		int centerAX = positionAX + widthA / 2;
+		int centerAY = positionAY + heightA / 2;
+		int centerBX = positionBX + widthB / 2;
+		int centerBY = positionBY + heightB / 2;
+		// Calculate maximum distance without collision.
+		int maxDistanceX = widthA / 2 + widthB / 2;
+		int maxDistanceY = heightA / 2 + heightB / 2;
+		// Calculates distance.
+		int distanceX = Math.abs(centerAX - centerBX);
+		int distanceY = Math.abs(centerAY - centerBY);
+
+		return distanceX < maxDistanceX && distanceY < maxDistanceY;
+	}
+
 	/**
 	 * Getter for the color of the entity.
 	 * 
@@ -95,6 +177,41 @@ public class Entity {
 		this.positionY = positionY;
 	}
 
+	/**
+	 * Keeps the current position as the one before the next simulation
+	 * step, so the entity can be drawn moving between both.
+	 */
+	public final void savePosition() {
+		this.previousPositionX = this.positionX;
+		this.previousPositionY = this.positionY;
+	}
+
+	/**
+	 * Returns the X axis position to draw the entity at, between its
+	 * previous and current positions.
+	 * 
+	 * @param interpolation
+	 *            Fraction of a step elapsed since the last update.
+	 * @return Position to draw the entity at in the X axis.
+	 */
+	public final int getDrawPositionX(final float interpolation) {
+		return this.previousPositionX + Math.round((this.positionX
+				- this.previousPositionX) * interpolation);
+	}
+
+	/**
+	 * Returns the Y axis position to draw the entity at, between its
+	 * previous and current positions.
+	 * 
+	 * @param interpolation
+	 *            Fraction of a step elapsed since the last update.
+	 * @return Position to draw the entity at in the Y axis.
+	 */
+	public final int getDrawPositionY(final float interpolation) {
+		return this.previousPositionY + Math.round((this.positionY
+				- this.previousPositionY) * interpolation);
+	}
+
 	/**
 	 * Getter for the sprite that the entity will be drawn as.
 	 * 
@@ -121,4 +238,48 @@ public class Entity {
 	public final int getHeight() {
 		return this.height;
 	}
+
+	/**
+	 * Marks the areas of the screen that have to be drawn again if the
+	 * entity moved or changed its image since it was last drawn.
+	 * 
+	 * @param dirtyRegion
+	 *            Areas of the screen that changed.
+	 * @param interpolation
+	 *            Fraction of a step elapsed since the last update.
+	 */
+	public final void reportDamage(final DirtyRegion dirtyRegion,
+			final float interpolation) {
+		int drawPositionX = getDrawPositionX(interpolation);
+		int drawPositionY = getDrawPositionY(interpolation);
+		if (this.isDrawn && this.drawnPositionX == drawPositionX
+				&& this.drawnPositionY == drawPositionY
+				&& this.drawnSpriteType == this.spriteType)
+			return;
+
+		if (this.isDrawn)
+			dirtyRegion.add(this.drawnPositionX, this.drawnPositionY,
+					this.width, this.height);
+		dirtyRegion.add(drawPositionX, drawPositionY, this.width,
+				this.height);
+
+		this.isDrawn = true;
+		this.drawnPositionX = drawPositionX;
+		this.drawnPositionY = drawPositionY;
+		this.drawnSpriteType = this.spriteType;
+	}
+
+	/**
+	 * Marks the area of the screen where the entity was last drawn, when it
+	 * is removed from the screen.
+	 * 
+	 * @param dirtyRegion
+	 *            Areas of the screen that changed.
+	 */
+	public final void reportRemoval(final DirtyRegion dirtyRegion) {
+		if (this.isDrawn)
+			dirtyRegion.add(this.drawnPositionX, this.drawnPositionY,
+					this.width, this.height);
+		this.isDrawn = false;
+	}
 }
@@ -0,0 +1,552 @@
+package entity;
+
+import java.awt.Color;
+import java.util.Arrays;
+
+import engine.Core;
+import engine.DirtyRegion;
+import engine.DrawManager;
+import engine.DrawManager.SpriteType;
+import engine.WorldSnapshot;
+
+/**
+ * Keeps a group of similar entities in parallel arrays, one row per entity,
+ * so they are moved, checked and drawn in linear passes over primitive data
+ * instead of one object at a time. Storage is allocated up front and its
+ * rows reused, so adding and removing entities allocates nothing unless the
+ * store outgrows its capacity. Rows are kept packed: a removed entity is
+ * replaced by the last one. Each row carries an id chosen by the owner, to
+ * find an entity again after rows move.
+ *
+ * @author <a href="mailto:RobertoIA1987@gmail.com">Roberto Izquierdo Amo</a>
+ *
+ */
+public final class EntityStore {
+
+	/** Sprite types by id. */
+	private static final SpriteType[] SPRITE_TYPES = SpriteType.values();
+
+	/** Position in the x-axis of the upper left corner of each entity. */
+	private int[] positionX;
+	/** Position in the y-axis of the upper left corner of each entity. */
+	private int[] positionY;
+	/** Position in the x-axis before the current simulation step. */
+	private int[] previousPositionX;
+	/** Position in the y-axis before the current simulation step. */
+	private int[] previousPositionY;
+	/** Width of each entity. */
+	private int[] width;
+	/** Height of each entity. */
+	private int[] height;
+	/** Vertical speed of each entity, positive is down. */
+	private int[] speed;
+	/** Sprite id of each entity. */
+	private int[] spriteIds;
+	/** Color of each entity. */
+	private Color[] colors;
+	/** Id given by the owner to each entity. */
+	private int[] ids;
+	/** Checks if each entity is still in play, else removed on compaction. */
+	private boolean[] alive;
+	/** Checks if each entity is currently drawn on screen. */
+	private boolean[] isDrawn;
+	/** Position in the x-axis where each entity was last drawn. */
+	private int[] drawnPositionX;
+	/** Position in the y-axis where each entity was last drawn. */
+	private int[] drawnPositionY;
+	/** Sprite id each entity was last drawn as. */
+	private int[] drawnSpriteIds;
+	/** Number of entities. */
+	private int count;
+	/** Largest number of entities held at once. */
+	private int peakCount;
+	/** Number of times the storage grew. */
+	private int growCount;
+
+	/**
+	 * Constructor, allocates the storage for a known number of entities.
+	 *
+	 * @param capacity
+	 *            Number of entities expected at once.
+	 */
+	public EntityStore(final int capacity) {
+		allocate(Math.max(1, capacity));
+	}
+
+	/**
+	 * Adds an entity, in play.
+	 *
+	 * @param newPositionX
+	 *            Initial position of the entity in the X axis.
+	 * @param newPositionY
+	 *            Initial position of the entity in the Y axis.
+	 * @param newWidth
+	 *            Width of the entity.
+	 * @param newHeight
+	 *            Height of the entity.
+	 * @param newSpeed
+	 *            Vertical speed of the entity, positive is down.
+	 * @param spriteType
+	 *            Sprite the entity is drawn as.
+	 * @param color
+	 *            Color of the entity.
+	 * @param id
+	 *            Id given by the owner.
+	 * @return Row of the new entity.
+	 */
+	public int add(final int newPositionX, final int newPositionY,
+			final int newWidth, final int newHeight, final int newSpeed,
+			final SpriteType spriteType, final Color color, final int id) {
+		if (this.count == this.positionX.length)
+			grow();
+
+		int row = this.count++;
+		this.peakCount = Math.max(this.peakCount, this.count);
+		this.positionX[row] = newPositionX;
+		this.positionY[row] = newPositionY;
+		this.previousPositionX[row] = newPositionX;
+		this.previousPositionY[row] = newPositionY;
+		this.width[row] = newWidth;
+		this.height[row] = newHeight;
+		this.speed[row] = newSpeed;
+		this.spriteIds[row] = spriteType.ordinal();
+		this.colors[row] = color;
+		this.ids[row] = id;
+		this.alive[row] = true;
+		this.isDrawn[row] = false;
+		return row;
+	}
+
+	/**
+	 * Getter for the number of entities, in play or not yet removed.
+	 *
+	 * @return Number of entities.
+	 */
+	public int size() {
+		return this.count;
+	}
+
+	/**
+	 * Moves every entity by its speed.
+	 */
+	public void advance() {
+		for (int row = 0; row < this.count; row++)
+			this.positionY[row] += this.speed[row];
+	}
+
+	/**
+	 * Moves every entity by the same distance.
+	 *
+	 * @param distanceX
+	 *            Distance to move in the x-axis.
+	 * @param distanceY
+	 *            Distance to move in the y-axis.
+	 */
+	public void move(final int distanceX, final int distanceY) {
+		for (int row = 0; row < this.count; row++) {
+			this.positionX[row] += distanceX;
+			this.positionY[row] += distanceY;
+		}
+	}
+
+	/**
+	 * Keeps the current positions as the ones before the next simulation
+	 * step, so the entities can be drawn moving between both.
+	 */
+	public void savePositions() {
+		System.arraycopy(this.positionX, 0, this.previousPositionX, 0,
+				this.count);
+		System.arraycopy(this.positionY, 0, this.previousPositionY, 0,
+				this.count);
+	}
+
+	/**
+	 * Takes an entity out of play. It stays in its row until the store is
+	 * compacted.
+	 *
+	 * @param row
+	 *            Row of the entity.
+	 */
+	public void kill(final int row) {
+		this.alive[row] = false;
+	}
+
+	/**
+	 * Marks the areas of the screen where the entities out of play were last
+	 * drawn, before they are removed.
+	 *
+	 * @param dirtyRegion
+	 *            Areas of the screen that changed.
+	 */
+	public void reportRemovals(final DirtyRegion dirtyRegion) {
+		for (int row = 0; row < this.count; row++)
+			if (!this.alive[row] && this.isDrawn[row])
+				dirtyRegion.add(this.drawnPositionX[row],
+						this.drawnPositionY[row], this.width[row],
+						this.height[row]);
+	}
+
+	/**
+	 * Removes the entities out of play, moving the last entity into the row
+	 * of each one removed.
+	 *
+	 * @return Number of entities removed.
+	 */
+	public int compact() {
+		int removed = 0;
+		int row = 0;
+		while (row < this.count) {
+			if (this.alive[row]) {
+				row++;
+				continue;
+			}
+			int last = --this.count;
+			if (row != last)
+				copyRow(last, row);
+			this.colors[last] = null;
+			removed++;
+		}
+		return removed;
+	}
+
+	/**
+	 * Checks if an entity is colliding with a sprite, pixel by pixel. The
+	 * pixels are only compared once the areas collide.
+	 *
+	 * @param row
+	 *            Row of the entity.
+	 * @param otherPositionX
+	 *            Position of the sprite in the X axis.
+	 * @param otherPositionY
+	 *            Position of the sprite in the Y axis.
+	 * @param otherWidth
+	 *            Width of the sprite.
+	 * @param otherHeight
+	 *            Height of the sprite.
+	 * @param otherSpriteType
+	 *            Sprite to check against.
+	 * @return Result of the collision test.
+	 */
+	public boolean collidesWith(final int row, final int otherPositionX,
+			final int otherPositionY, final int otherWidth,
+			final int otherHeight, final SpriteType otherSpriteType) {
+		return Entity.collide(this.positionX[row], this.positionY[row],
+				this.width[row], this.height[row], otherPositionX,
+				otherPositionY, otherWidth, otherHeight)
+				&& Core.getCollisionMasks().overlap(
+						SPRITE_TYPES[this.spriteIds[row]],
+						this.positionX[row], this.positionY[row],
+						otherSpriteType, otherPositionX, otherPositionY);
+	}
+
+	/**
+	 * Marks the areas of the screen that have to be drawn again for the
+	 * entities that moved or changed their image since they were last drawn.
+	 *
+	 * @param dirtyRegion
+	 *            Areas of the screen that changed.
+	 * @param interpolation
+	 *            Fraction of a step elapsed since the last update.
+	 */
+	public void reportDamage(final DirtyRegion dirtyRegion,
+			final float interpolation) {
+		for (int row = 0; row < this.count; row++) {
+			int drawPositionX = getDrawPositionX(row, interpolation);
+			int drawPositionY = getDrawPositionY(row, interpolation);
+			if (this.isDrawn[row]
+					&& this.drawnPositionX[row] == drawPositionX
+					&& this.drawnPositionY[row] == drawPositionY
+					&& this.drawnSpriteIds[row] == this.spriteIds[row])
+				continue;
+
+			if (this.isDrawn[row])
+				dirtyRegion.add(this.drawnPositionX[row],
+						this.drawnPositionY[row], this.width[row],
+						this.height[row]);
+			dirtyRegion.add(drawPositionX, drawPositionY, this.width[row],
+					this.height[row]);
+
+			this.isDrawn[row] = true;
+			this.drawnPositionX[row] = drawPositionX;
+			this.drawnPositionY[row] = drawPositionY;
+			this.drawnSpriteIds[row] = this.spriteIds[row];
+		}
+	}
+
+	/**
+	 * Draws every entity.
+	 *
+	 * @param drawManager
+	 *            Draw manager to draw with.
+	 * @param interpolation
+	 *            Fraction of a step elapsed since the last update.
+	 */
+	public void draw(final DrawManager drawManager,
+			final float interpolation) {
+		for (int row = 0; row < this.count; row++)
+			drawManager.drawSprite(SPRITE_TYPES[this.spriteIds[row]],
+					this.colors[row], getDrawPositionX(row, interpolation),
+					getDrawPositionY(row, interpolation));
+	}
+
+	/**
+	 * Adds every entity to a snapshot.
+	 *
+	 * @param snapshot
+	 *            Snapshot to be drawn.
+	 * @param interpolation
+	 *            Fraction of a step elapsed since the last update.
+	 */
+	public void addTo(final WorldSnapshot snapshot,
+			final float interpolation) {
+		for (int row = 0; row < this.count; row++)
+			snapshot.add(SPRITE_TYPES[this.spriteIds[row]],
+					this.colors[row], getDrawPositionX(row, interpolation),
+					getDrawPositionY(row, interpolation));
+	}
+
+	/**
+	 * Getter for the capacity of the storage.
+	 *
+	 * @return Number of entities that fit without growing.
+	 */
+	public int getCapacity() {
+		return this.positionX.length;
+	}
+
+	/**
+	 * Getter for the largest number of entities held at once, to compare
+	 * against the capacity the store was created with.
+	 *
+	 * @return Peak number of entities.
+	 */
+	public int getPeakCount() {
+		return this.peakCount;
+	}
+
+	/**
+	 * Getter for the number of times the storage had to grow, each one
+	 * reallocating every array.
+	 *
+	 * @return Number of times the storage grew.
+	 */
+	public int getGrowCount() {
+		return this.growCount;
+	}
+
+	/**
+	 * Checks if an entity is in play.
+	 *
+	 * @param row
+	 *            Row of the entity.
+	 * @return True if the entity was not killed.
+	 */
+	public boolean isAlive(final int row) {
+		return this.alive[row];
+	}
+
+	/**
+	 * Getter for the id of an entity.
+	 *
+	 * @param row
+	 *            Row of the entity.
+	 * @return Id given by the owner.
+	 */
+	public int getId(final int row) {
+		return this.ids[row];
+	}
+
+	/**
+	 * Getter for the X axis position of an entity.
+	 *
+	 * @param row
+	 *            Row of the entity.
+	 * @return Position of the entity in the X axis.
+	 */
+	public int getPositionX(final int row) {
+		return this.positionX[row];
+	}
+
+	/**
+	 * Getter for the Y axis position of an entity.
+	 *
+	 * @param row
+	 *            Row of the entity.
+	 * @return Position of the entity in the Y axis.
+	 */
+	public int getPositionY(final int row) {
+		return this.positionY[row];
+	}
+
+	/**
+	 * Returns the X axis position to draw an entity at, between its previous
+	 * and current positions.
+	 *
+	 * @param row
+	 *            Row of the entity.
+	 * @param interpolation
+	 *            Fraction of a step elapsed since the last update.
+	 * @return Position to draw the entity at in the X axis.
+	 */
+	public int getDrawPositionX(final int row, final float interpolation) {
+		return this.previousPositionX[row] + Math.round((this.positionX[row]
+				- this.previousPositionX[row]) * interpolation);
+	}
+
+	/**
+	 * Returns the Y axis position to draw an entity at, between its previous
+	 * and current positions.
+	 *
+	 * @param row
+	 *            Row of the entity.
+	 * @param interpolation
+	 *            Fraction of a step elapsed since the last update.
+	 * @return Position to draw the entity at in the Y axis.
+	 */
+	public int getDrawPositionY(final int row, final float interpolation) {
+		return this.previousPositionY[row] + Math.round((this.positionY[row]
+				- this.previousPositionY[row]) * interpolation);
+	}
+
+	/**
+	 * Getter for the width of an entity.
+	 *
+	 * @param row
+	 *            Row of the entity.
+	 * @return Width of the entity.
+	 */
+	public int getWidth(final int row) {
+		return this.width[row];
+	}
+
+	/**
+	 * Getter for the height of an entity.
+	 *
+	 * @param row
+	 *            Row of the entity.
+	 * @return Height of the entity.
+	 */
+	public int getHeight(final int row) {
+		return this.height[row];
+	}
+
+	/**
+	 * Getter for the speed of an entity.
+	 *
+	 * @param row
+	 *            Row of the entity.
+	 * @return Vertical speed of the entity, positive is down.
+	 */
+	public int getSpeed(final int row) {
+		return this.speed[row];
+	}
+
+	/**
+	 * Getter for the sprite an entity is drawn as.
+	 *
+	 * @param row
+	 *            Row of the entity.
+	 * @return Sprite of the entity.
+	 */
+	public SpriteType getSpriteType(final int row) {
+		return SPRITE_TYPES[this.spriteIds[row]];
+	}
+
+	/**
+	 * Setter for the sprite an entity is drawn as.
+	 *
+	 * @param row
+	 *            Row of the entity.
+	 * @param spriteType
+	 *            New sprite of the entity.
+	 */
+	public void setSpriteType(final int row, final SpriteType spriteType) {
+		this.spriteIds[row] = spriteType.ordinal();
+	}
+
+	/**
+	 * Getter for the color of an entity.
+	 *
+	 * @param row
+	 *            Row of the entity.
+	 * @return Color of the entity.
+	 */
+	public Color getColor(final int row) {
+		return this.colors[row];
+	}
+
+	/**
+	 * Moves an entity to another row, overwriting it.
+	 *
+	 * @param from
+	 *            Row the entity is in.
+	 * @param to
+	 *            Row the entity is moved to.
+	 */
+	private void copyRow(final int from, final int to) {
+		this.positionX[to] = this.positionX[from];
+		this.positionY[to] = this.positionY[from];
+		this.previousPositionX[to] = this.previousPositionX[from];
+		this.previousPositionY[to] = this.previousPositionY[from];
+		this.width[to] = this.width[from];
+		this.height[to] = this.height[from];
+		this.speed[to] = this.speed[from];
+		this.spriteIds[to] = this.spriteIds[from];
+		this.colors[to] = this.colors[from];
+		this.ids[to] = this.ids[from];
+		this.alive[to] = this.alive[from];
+		this.isDrawn[to] = this.isDrawn[from];
+		this.drawnPositionX[to] = this.drawnPositionX[from];
+		this.drawnPositionY[to] = this.drawnPositionY[from];
+		this.drawnSpriteIds[to] = this.drawnSpriteIds[from];
+	}
+
+	/**
+	 * Allocates empty storage.
+	 *
+	 * @param capacity
+	 *            Number of entities that fit.
+	 */
+	private void allocate(final int capacity) {
+		this.positionX = new int[capacity];
+		this.positionY = new int[capacity];
+		this.previousPositionX = new int[capacity];
+		this.previousPositionY = new int[capacity];
+		this.width = new int[capacity];
+		this.height = new int[capacity];
+		this.speed = new int[capacity];
+		this.spriteIds = new int[capacity];
+		this.colors = new Color[capacity];
+		this.ids = new int[capacity];
+		this.alive = new boolean[capacity];
+		this.isDrawn = new boolean[capacity];
+		this.drawnPositionX = new int[capacity];
+		this.drawnPositionY = new int[capacity];
+		this.drawnSpriteIds = new int[capacity];
+	}
+
+	/**
+	 * Doubles the capacity of the store.
+	 */
+	private void grow() {
+		this.growCount++;
+		int capacity = this.positionX.length * 2;
+		this.positionX = Arrays.copyOf(this.positionX, capacity);
+		this.positionY = Arrays.copyOf(this.positionY, capacity);
+		this.previousPositionX = Arrays.copyOf(this.previousPositionX,
+				capacity);
+		this.previousPositionY = Arrays.copyOf(this.previousPositionY,
+				capacity);
+		this.width = Arrays.copyOf(this.width, capacity);
+		this.height = Arrays.copyOf(this.height, capacity);
+		this.speed = Arrays.copyOf(this.speed, capacity);
+		this.spriteIds = Arrays.copyOf(this.spriteIds, capacity);
+		this.colors = Arrays.copyOf(this.colors, capacity);
+		this.ids = Arrays.copyOf(this.ids, capacity);
+		this.alive = Arrays.copyOf(this.alive, capacity);
+		this.isDrawn = Arrays.copyOf(this.isDrawn, capacity);
+		this.drawnPositionX = Arrays.copyOf(this.drawnPositionX, capacity);
+		this.drawnPositionY = Arrays.copyOf(this.drawnPositionY, capacity);
+		this.drawnSpriteIds = Arrays.copyOf(this.drawnSpriteIds, capacity);
+	}
+}
@@ -1,11 +1,9 @@
 package entity;
 
 import java.awt.Color;
-import java.util.Set;
 
-import engine.Cooldown;
-import engine.Core;
 import engine.DrawManager.SpriteType;
+import engine.TimerWheel;
 
 /**
  * Implements a ship, to be controlled by the player.
@@ -17,15 +15,23 @@ public class Ship extends Entity {
 
 	/** Time between shots. */
 	private static final int SHOOTING_INTERVAL = 750;
+	/** Time spent inactive after being hit. */
+	private static final int DESTRUCTION_TIME = 1000;
 	/** Speed of the bullets shot by the ship. */
 	private static final int BULLET_SPEED = -6;
 	/** Movement of the ship for each unit of time. */
 	private static final int SPEED = 2;
 	
-	/** Minimum time between shots. */
-	private Cooldown shootingCooldown;
-	/** Time spent inactive between hits. */
-	private Cooldown destructionCooldown;
+	/** Timers of the screen the ship is on. */
+	private TimerWheel timerWheel;
+	/** Ends the minimum time between shots. */
+	private TimerWheel.Timer shootingTimer;
+	/** Ends the time spent inactive after a hit. */
+	private TimerWheel.Timer destructionTimer;
+	/** Checks if the minimum time since the last shot has passed. */
+	private boolean canShoot;
+	/** Checks if the ship is inactive after a hit. */
+	private boolean isDestroyed;
 
 	/**
 	 * Constructor, establishes the ship's properties.
@@ -39,8 +45,30 @@ public class Ship extends Entity {
 		super(positionX, positionY, 13 * 2, 8 * 2, Color.GREEN);
 
 		this.spriteType = SpriteType.Ship;
-		this.shootingCooldown = Core.getCooldown(SHOOTING_INTERVAL);
-		this.destructionCooldown = Core.getCooldown(1000);
+		this.canShoot = true;
+		this.shootingTimer = new TimerWheel.Timer() {
+			@Override
+			protected void expire() {
+				canShoot = true;
+			}
+		};
+		this.destructionTimer = new TimerWheel.Timer() {
+			@Override
+			protected void expire() {
+				isDestroyed = false;
+				spriteType = SpriteType.Ship;
+			}
+		};
+	}
+
+	/**
+	 * Sets the timers the ship uses to wait between shots and after hits.
+	 * 
+	 * @param newTimerWheel
+	 *            Timers of the screen the ship is on.
+	 */
+	public final void attach(final TimerWheel newTimerWheel) {
+		this.timerWheel = newTimerWheel;
 	}
 
 	/**
@@ -63,34 +91,27 @@ public class Ship extends Entity {
 	 * Shoots a bullet upwards.
 	 * 
 	 * @param bullets
-	 *            List of bullets on screen, to add the new bullet.
+	 *            Bullets on screen, to add the new bullet.
 	 * @return Checks if the bullet was shot correctly.
 	 */
-	public final boolean shoot(final Set<Bullet> bullets) {
-		if (this.shootingCooldown.checkFinished()) {
-			this.shootingCooldown.reset();
-			bullets.add(BulletPool.getBullet(positionX + this.width / 2,
-					positionY, BULLET_SPEED));
+	public final boolean shoot(final EntityStore bullets) {
+		if (this.canShoot) {
+			this.canShoot = false;
+			this.timerWheel.schedule(this.shootingTimer, SHOOTING_INTERVAL);
+			Bullet.shoot(bullets, positionX + this.width / 2, positionY,
+					BULLET_SPEED);
 			return true;
 		}
 		return false;
 	}
 
 	/**
-	 * Updates status of the ship.
-	 */
-	public final void update() {
-		if (!this.destructionCooldown.checkFinished())
-			this.spriteType = SpriteType.ShipDestroyed;
-		else
-			this.spriteType = SpriteType.Ship;
-	}
-
-	/**
-	 * Switches the ship to its destroyed state.
+	 * Switches the ship to its destroyed state, until its timer expires.
 	 */
 	public final void destroy() {
-		this.destructionCooldown.reset();
+		this.isDestroyed = true;
+		this.spriteType = SpriteType.ShipDestroyed;
+		this.timerWheel.schedule(this.destructionTimer, DESTRUCTION_TIME);
 	}
 
 	/**
@@ -99,7 +120,7 @@ public class Ship extends Entity {
 	 * @return True if the ship is currently destroyed.
 	 */
 	public final boolean isDestroyed() {
-		return !this.destructionCooldown.checkFinished();
+		return this.isDestroyed;
 	}
 
 	/**
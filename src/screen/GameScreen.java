@@ -1,18 +1,23 @@
 package screen;
 
 import java.awt.event.KeyEvent;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.logging.Level;
 
 import engine.Cooldown;
 import engine.Core;
+import engine.DirtyRegion;
+import engine.DrawManager.SpriteType;
+import engine.FrameProfiler;
+import engine.FrameProfiler.Phase;
 import engine.GameSettings;
 import engine.GameState;
-import entity.Bullet;
-import entity.BulletPool;
+import engine.RenderThread;
+import engine.SnapshotExchanger;
+import engine.TimerWheel;
+import engine.WorldSnapshot;
 import entity.EnemyShip;
 import entity.EnemyShipFormation;
-import entity.Entity;
+import entity.EntityStore;
 import entity.Ship;
 
 /**
@@ -37,6 +42,8 @@ public class GameScreen extends Screen {
 	private static final int SCREEN_CHANGE_INTERVAL = 1500;
 	/** Height of the interface separation line. */
 	private static final int SEPARATION_LINE_HEIGHT = 40;
+	/** Bullets on screen at once the bullet storage is prepared for. */
+	private static final int BULLET_CAPACITY = 128;
 
 	/** Current game difficulty settings. */
 	private GameSettings gameSettings;
@@ -48,14 +55,20 @@ public class GameScreen extends Screen {
 	private Ship ship;
 	/** Bonus enemy ship that appears sometimes. */
 	private EnemyShip enemyShipSpecial;
-	/** Minimum time between bonus ship appearances. */
-	private Cooldown enemyShipSpecialCooldown;
-	/** Time until bonus ship explosion disappears. */
-	private Cooldown enemyShipSpecialExplosionCooldown;
-	/** Time from finishing the level to screen change. */
-	private Cooldown screenFinishedCooldown;
-	/** Set of all bullets fired by on screen ships. */
-	private Set<Bullet> bullets;
+	/** Ends the minimum time between bonus ship appearances. */
+	private TimerWheel.Timer enemyShipSpecialTimer;
+	/** Removes the bonus ship explosion. */
+	private TimerWheel.Timer enemyShipSpecialExplosionTimer;
+	/** Changes the screen some time after finishing the level. */
+	private TimerWheel.Timer screenFinishedTimer;
+	/** Ends the time until the player can act. */
+	private TimerWheel.Timer inputDelayTimer;
+	/** Checks if a bonus ship can appear. */
+	private boolean isEnemyShipSpecialDue;
+	/** Checks if the player can act. */
+	private boolean isInputEnabled;
+	/** All bullets fired by on screen ships. */
+	private EntityStore bullets;
 	/** Current score. */
 	private int score;
 	/** Player lives left. */
@@ -70,6 +83,20 @@ public class GameScreen extends Screen {
 	private boolean levelFinished;
 	/** Checks if a bonus life is received. */
 	private boolean bonusLife;
+	/** Areas of the screen changed since the last frame. */
+	private DirtyRegion dirtyRegion;
+	/** Score currently shown on screen. */
+	private int drawnScore;
+	/** Lives currently shown on screen. */
+	private int drawnLives;
+	/** Checks if the countdown was shown on the last frame. */
+	private boolean countdownDrawn;
+	/** Hands snapshots to the render thread, if there is one. */
+	private SnapshotExchanger snapshotExchanger;
+	/** Thread drawing the screen, if not drawn by the game loop. */
+	private RenderThread renderThread;
+	/** Measures the duration of each phase of a frame. */
+	private FrameProfiler profiler;
 
 	/**
 	 * Constructor, establishes the properties of the screen.
@@ -109,22 +136,69 @@ public class GameScreen extends Screen {
 	public final void initialize() {
 		super.initialize();
 
-		enemyShipFormation = new EnemyShipFormation(this.gameSettings);
+		enemyShipFormation = Core.getPreloader().getFormation(
+				this.gameSettings);
 		enemyShipFormation.attach(this);
 		this.ship = new Ship(this.width / 2, this.height - 30);
+		this.ship.attach(this.timerWheel);
+		this.enemyShipSpecialTimer = new TimerWheel.Timer() {
+			@Override
+			protected void expire() {
+				isEnemyShipSpecialDue = true;
+			}
+		};
+		this.enemyShipSpecialExplosionTimer = new TimerWheel.Timer() {
+			@Override
+			protected void expire() {
+				if (enemyShipSpecial != null) {
+					enemyShipSpecial.reportRemoval(dirtyRegion);
+					enemyShipSpecial = null;
+				}
+			}
+		};
+		this.screenFinishedTimer = new TimerWheel.Timer() {
+			@Override
+			protected void expire() {
+				isRunning = false;
+			}
+		};
+		this.inputDelayTimer = new TimerWheel.Timer() {
+			@Override
+			protected void expire() {
+				isInputEnabled = true;
+			}
+		};
 		// Appears each 10-30 seconds.
-		this.enemyShipSpecialCooldown = Core.getVariableCooldown(
-				BONUS_SHIP_INTERVAL, BONUS_SHIP_VARIANCE);
-		this.enemyShipSpecialCooldown.reset();
-		this.enemyShipSpecialExplosionCooldown = Core
-				.getCooldown(BONUS_SHIP_EXPLOSION);
-		this.screenFinishedCooldown = Core.getCooldown(SCREEN_CHANGE_INTERVAL);
-		this.bullets = new HashSet<Bullet>();
+		scheduleEnemyShipSpecial();
+		this.bullets = new EntityStore(BULLET_CAPACITY);
+		this.dirtyRegion = new DirtyRegion();
+		this.profiler = Core.getProfiler();
+		this.drawnScore = -1;
+		this.drawnLives = -1;
+
+		if (Core.isRenderThreadEnabled()) {
+			this.snapshotExchanger = new SnapshotExchanger();
+			this.renderThread = new RenderThread(this.snapshotExchanger,
+					new RenderThread.Renderer() {
+						@Override
+						public void render(final WorldSnapshot snapshot) {
+							drawSnapshot(snapshot);
+						}
+					});
+		}
 
 		// Special input delay / countdown.
-		this.gameStartTime = System.currentTimeMillis();
-		this.inputDelay = Core.getCooldown(INPUT_DELAY);
-		this.inputDelay.reset();
+		this.gameStartTime = this.clock.getTime();
+		this.timerWheel.schedule(this.inputDelayTimer, INPUT_DELAY);
+	}
+
+	/**
+	 * Schedules the next appearance of the bonus ship.
+	 */
+	private void scheduleEnemyShipSpecial() {
+		this.isEnemyShipSpecialDue = false;
+		this.timerWheel.schedule(this.enemyShipSpecialTimer, Cooldown
+				.getVariableDuration(BONUS_SHIP_INTERVAL, BONUS_SHIP_VARIANCE));
 	}
 
 	/**
@@ -133,7 +207,16 @@ public class GameScreen extends Screen {
 	 * @return Next screen code.
 	 */
 	public final int run() {
+		if (this.renderThread != null)
+			this.renderThread.start();
 		super.run();
+		if (this.renderThread != null)
+			this.renderThread.finish();
+		this.profiler.dump(this.logger, "Level " + this.level);
+		this.logger.info("Bullet storage: peak of "
+				+ this.bullets.getPeakCount() + " bullets, capacity "
+				+ this.bullets.getCapacity() + ", grew "
+				+ this.bullets.getGrowCount() + " times.");
 
 		this.score += LIFE_SCORE * (this.lives - 1);
 		this.logger.info("Screen cleared with a score of " + this.score);
@@ -146,8 +229,10 @@ public class GameScreen extends Screen {
 	 */
 	protected final void update() {
 		super.update();
+		savePositions();
+		long time = this.profiler.start();
 
-		if (this.inputDelay.checkFinished() && !this.levelFinished) {
+		if (this.isInputEnabled && !this.levelFinished) {
 
 			if (!this.ship.isDestroyed()) {
 				boolean moveRight = inputManager.isKeyDown(KeyEvent.VK_RIGHT)
@@ -171,162 +256,275 @@ public class GameScreen extends Screen {
 						this.bulletsShot++;
 			}
 
-			if (this.enemyShipSpecial != null) {
-				if (!this.enemyShipSpecial.isDestroyed())
-					this.enemyShipSpecial.move(2, 0);
-				else if (this.enemyShipSpecialExplosionCooldown.checkFinished())
-					this.enemyShipSpecial = null;
-
-			}
-			if (this.enemyShipSpecial == null
-					&& this.enemyShipSpecialCooldown.checkFinished()) {
+			if (this.enemyShipSpecial != null
+					&& !this.enemyShipSpecial.isDestroyed())
+				this.enemyShipSpecial.move(2, 0);
+			if (this.enemyShipSpecial == null && this.isEnemyShipSpecialDue) {
 				this.enemyShipSpecial = new EnemyShip();
-				this.enemyShipSpecialCooldown.reset();
+				scheduleEnemyShipSpecial();
 				this.logger.info("A special ship appears");
 			}
 			if (this.enemyShipSpecial != null
 					&& this.enemyShipSpecial.getPositionX() > this.width) {
+				this.enemyShipSpecial.reportRemoval(this.dirtyRegion);
 				this.enemyShipSpecial = null;
 				this.logger.info("The special ship has escaped");
 			}
 
-			this.ship.update();
+			time = this.profiler.record(Phase.INPUT, time);
 			this.enemyShipFormation.update();
 			this.enemyShipFormation.shoot(this.bullets);
+			time = this.profiler.record(Phase.FORMATION, time);
 		}
 
 		manageCollisions();
+		time = this.profiler.record(Phase.COLLISIONS, time);
 		cleanBullets();
-		draw();
+		this.profiler.record(Phase.CLEAN_BULLETS, time);
 
 		if ((this.enemyShipFormation.isEmpty() || this.lives == 0)
 				&& !this.levelFinished) {
 			this.levelFinished = true;
-			this.screenFinishedCooldown.reset();
+			this.timerWheel.schedule(this.screenFinishedTimer,
+					SCREEN_CHANGE_INTERVAL);
+			// The next level is built while the level clear is shown.
+			if (this.lives > 0)
+				Core.getPreloader().preloadLevel(this.level + 1);
 		}
+	}
 
-		if (this.levelFinished && this.screenFinishedCooldown.checkFinished())
-			this.isRunning = false;
-
+	/**
+	 * Keeps the positions of the moving elements before they are updated.
+	 */
+	private void savePositions() {
+		this.ship.savePosition();
+		if (this.enemyShipSpecial != null)
+			this.enemyShipSpecial.savePosition();
+		this.bullets.savePositions();
 	}
 
 	/**
-	 * Draws the elements associated with the screen.
+	 * Draws the elements associated with the screen, or hands them to the
+	 * render thread if there is one.
+	 * 
+	 * @param interpolation
+	 *            Fraction of a step elapsed since the last update.
 	 */
-	private void draw() {
-		drawManager.initDrawing(this);
+	@Override
+	protected final void draw(final float interpolation) {
+		if (this.renderThread != null)
+			publishSnapshot(interpolation);
+		else
+			drawIncremental(interpolation);
+	}
 
-		drawManager.drawEntity(this.ship, this.ship.getPositionX(),
-				this.ship.getPositionY());
+	/**
+	 * Draws the elements associated with the screen. Only the areas that
+	 * changed since the last frame are drawn again.
+	 * 
+	 * @param interpolation
+	 *            Fraction of a step elapsed since the last update.
+	 */
+	private void drawIncremental(final float interpolation) {
+		long time = this.profiler.start();
+		boolean countdownVisible = !this.isInputEnabled;
+		if (countdownVisible || this.countdownDrawn
+				|| drawManager.needsFullRedraw())
+			this.dirtyRegion.markFull();
+		this.countdownDrawn = countdownVisible;
+
+		this.ship.reportDamage(this.dirtyRegion, interpolation);
+		if (this.enemyShipSpecial != null)
+			this.enemyShipSpecial.reportDamage(this.dirtyRegion,
+					interpolation);
+		enemyShipFormation.reportDamage(this.dirtyRegion);
+		this.bullets.reportDamage(this.dirtyRegion, interpolation);
+
+		boolean interfaceChanged = this.dirtyRegion.isFull()
+				|| this.score != this.drawnScore
+				|| this.lives != this.drawnLives;
+		if (interfaceChanged)
+			this.dirtyRegion.add(0, 0, this.width,
+					SEPARATION_LINE_HEIGHT - 1);
+
+		drawManager.initDrawing(this, this.dirtyRegion);
+
+		drawManager.drawEntity(this.ship,
+				this.ship.getDrawPositionX(interpolation),
+				this.ship.getDrawPositionY(interpolation));
 		if (this.enemyShipSpecial != null)
 			drawManager.drawEntity(this.enemyShipSpecial,
-					this.enemyShipSpecial.getPositionX(),
-					this.enemyShipSpecial.getPositionY());
+					this.enemyShipSpecial.getDrawPositionX(interpolation),
+					this.enemyShipSpecial.getDrawPositionY(interpolation));
 
+		// The formation moves in steps, it is not interpolated.
 		enemyShipFormation.draw();
 
-		for (Bullet bullet : this.bullets)
-			drawManager.drawEntity(bullet, bullet.getPositionX(),
-					bullet.getPositionY());
+		this.bullets.draw(drawManager, interpolation);
 
 		// Interface.
-		drawManager.drawScore(this, this.score);
-		drawManager.drawLives(this, this.lives);
+		if (interfaceChanged) {
+			drawManager.drawScore(this, this.score);
+			drawManager.drawLives(this, this.lives);
+			this.drawnScore = this.score;
+			this.drawnLives = this.lives;
+		}
 		drawManager.drawHorizontalLine(this, SEPARATION_LINE_HEIGHT - 1);
 
 		// Countdown to game start.
-		if (!this.inputDelay.checkFinished()) {
-			int countdown = (int) ((INPUT_DELAY
-					- (System.currentTimeMillis()
-							- this.gameStartTime)) / 1000);
-			drawManager.drawCountDown(this, this.level, countdown,
-					this.bonusLife);
-			drawManager.drawHorizontalLine(this, this.height / 2 - this.height
-					/ 12);
-			drawManager.drawHorizontalLine(this, this.height / 2 + this.height
-					/ 12);
-		}
+		if (countdownVisible)
+			drawCountDown(getCountdown());
 
+		time = this.profiler.record(Phase.DRAW, time);
+		drawManager.completeDrawing(this, this.dirtyRegion);
+		this.profiler.record(Phase.COMPLETE_DRAWING, time);
+		this.dirtyRegion.reset();
+	}
+
+	/**
+	 * Publishes the elements associated with the screen for the render
+	 * thread to draw.
+	 * 
+	 * @param interpolation
+	 *            Fraction of a step elapsed since the last update.
+	 */
+	private void publishSnapshot(final float interpolation) {
+		WorldSnapshot snapshot = this.snapshotExchanger.getWriteSnapshot();
+		snapshot.clear();
+
+		snapshot.add(this.ship, this.ship.getDrawPositionX(interpolation),
+				this.ship.getDrawPositionY(interpolation));
+		if (this.enemyShipSpecial != null)
+			snapshot.add(this.enemyShipSpecial,
+					this.enemyShipSpecial.getDrawPositionX(interpolation),
+					this.enemyShipSpecial.getDrawPositionY(interpolation));
+		enemyShipFormation.addTo(snapshot);
+		this.bullets.addTo(snapshot, interpolation);
+
+		snapshot.setInterface(this.score, this.lives,
+				this.isInputEnabled ? -1 : getCountdown());
+
+		this.snapshotExchanger.publish();
+		this.renderThread.signal();
+	}
+
+	/**
+	 * Draws a snapshot of the elements associated with the screen. Called
+	 * from the render thread.
+	 * 
+	 * @param snapshot
+	 *            Snapshot to draw.
+	 */
+	private void drawSnapshot(final WorldSnapshot snapshot) {
+		long time = this.profiler.start();
+		drawManager.initDrawing(this);
+
+		for (int i = 0; i < snapshot.getCount(); i++)
+			drawManager.drawSprite(snapshot.getSpriteType(i),
+					snapshot.getColor(i), snapshot.getPositionX(i),
+					snapshot.getPositionY(i));
+
+		// Interface.
+		drawManager.drawScore(this, snapshot.getScore());
+		drawManager.drawLives(this, snapshot.getLives());
+		drawManager.drawHorizontalLine(this, SEPARATION_LINE_HEIGHT - 1);
+
+		// Countdown to game start.
+		if (snapshot.getCountdown() >= 0)
+			drawCountDown(snapshot.getCountdown());
+
+		time = this.profiler.record(Phase.DRAW, time);
 		drawManager.completeDrawing(this);
+		this.profiler.record(Phase.COMPLETE_DRAWING, time);
+	}
+
+	/**
+	 * Draws the countdown to game start.
+	 * 
+	 * @param countdown
+	 *            Countdown number.
+	 */
+	private void drawCountDown(final int countdown) {
+		drawManager.drawCountDown(this, this.level, countdown,
+				this.bonusLife);
+		drawManager.drawHorizontalLine(this, this.height / 2 - this.height
+				/ 12);
+		drawManager.drawHorizontalLine(this, this.height / 2 + this.height
+				/ 12);
+	}
+
+	/**
+	 * Calculates the countdown number to game start.
+	 * 
+	 * @return Seconds left until the game starts.
+	 */
+	private int getCountdown() {
+		return (int) ((INPUT_DELAY
+				- (this.clock.getTime() - this.gameStartTime)) / 1000);
 	}
 
 	/**
 	 * Cleans bullets that go off screen.
 	 */
 	private void cleanBullets() {
-		Set<Bullet> recyclable = new HashSet<Bullet>();
-		for (Bullet bullet : this.bullets) {
-			bullet.update();
-			if (bullet.getPositionY() < SEPARATION_LINE_HEIGHT
-					|| bullet.getPositionY() > this.height)
-				recyclable.add(bullet);
-		}
-		this.bullets.removeAll(recyclable);
-		BulletPool.recycle(recyclable);
+		this.bullets.advance();
+		for (int i = 0; i < this.bullets.size(); i++)
+			if (this.bullets.getPositionY(i) < SEPARATION_LINE_HEIGHT
+					|| this.bullets.getPositionY(i) > this.height)
+				this.bullets.kill(i);
+		// Also drops the bullets that hit a ship this step.
+		this.bullets.reportRemovals(this.dirtyRegion);
+		this.bullets.compact();
 	}
 
 	/**
-	 * Manages collisions between bullets and ships.
+	 * Manages collisions between bullets and ships. Bullets that hit are
+	 * taken out of play, and removed when cleaned.
 	 */
 	private void manageCollisions() {
-		Set<Bullet> recyclable = new HashSet<Bullet>();
-		for (Bullet bullet : this.bullets)
-			if (bullet.getSpeed() > 0) {
-				if (checkCollision(bullet, this.ship) && !this.levelFinished) {
-					recyclable.add(bullet);
+		for (int i = 0; i < this.bullets.size(); i++) {
+			int bulletX = this.bullets.getPositionX(i);
+			int bulletY = this.bullets.getPositionY(i);
+			int bulletWidth = this.bullets.getWidth(i);
+			int bulletHeight = this.bullets.getHeight(i);
+			SpriteType bulletSprite = this.bullets.getSpriteType(i);
+			if (this.bullets.getSpeed(i) > 0) {
+				if (this.ship.collidesWith(bulletX, bulletY, bulletWidth,
+						bulletHeight, bulletSprite) && !this.levelFinished) {
+					this.bullets.kill(i);
 					if (!this.ship.isDestroyed()) {
 						this.ship.destroy();
 						this.lives--;
-						this.logger.info("Hit on player ship, " + this.lives
-								+ " lives remaining.");
+						if (this.logger.isLoggable(Level.INFO))
+							this.logger.info("Hit on player ship, "
+									+ this.lives + " lives remaining.");
 					}
 				}
 			} else {
-				for (EnemyShip enemyShip : this.enemyShipFormation)
-					if (!enemyShip.isDestroyed()
-							&& checkCollision(bullet, enemyShip)) {
-						this.score += enemyShip.getPointValue();
-						this.shipsDestroyed++;
-						this.enemyShipFormation.destroy(enemyShip);
-						recyclable.add(bullet);
-					}
+				int place = this.enemyShipFormation.getShipHitBy(bulletX,
+						bulletY, bulletWidth, bulletHeight, bulletSprite);
+				if (place >= 0) {
+					this.score += this.enemyShipFormation
+							.getPointValue(place);
+					this.shipsDestroyed++;
+					this.enemyShipFormation.destroy(place);
+					this.bullets.kill(i);
+				}
 				if (this.enemyShipSpecial != null
 						&& !this.enemyShipSpecial.isDestroyed()
-						&& checkCollision(bullet, this.enemyShipSpecial)) {
+						&& this.enemyShipSpecial.collidesWith(bulletX,
+								bulletY, bulletWidth, bulletHeight,
+								bulletSprite)) {
 					this.score += this.enemyShipSpecial.getPointValue();
 					this.shipsDestroyed++;
 					this.enemyShipSpecial.destroy();
-					this.enemyShipSpecialExplosionCooldown.reset();
-					recyclable.add(bullet);
+					this.timerWheel.schedule(
+							this.enemyShipSpecialExplosionTimer,
+							BONUS_SHIP_EXPLOSION);
+					this.bullets.kill(i);
 				}
 			}
-		this.bullets.removeAll(recyclable);
-		BulletPool.recycle(recyclable);
-	}
-
-	/**
-	 * Checks if two entities are colliding.
-	 * 
-	 * @param a
-	 *            First entity, the bullet.
-	 * @param b
-	 *            Second entity, the ship.
-	 * @return Result of the collision test.
-	 */
-	private boolean checkCollision(final Entity a, final Entity b) {
-		// Calculate center point of the entities in both axis.
-		int centerAX = a.getPositionX() + a.getWidth() / 2;
-		int centerAY = a.getPositionY() + a.getHeight() / 2;
-		int centerBX = b.getPositionX() + b.getWidth() / 2;
-		int centerBY = b.getPositionY() + b.getHeight() / 2;
-		// Calculate maximum distance without collision.
-		int maxDistanceX = a.getWidth() / 2 + b.getWidth() / 2;
-		int maxDistanceY = a.getHeight() / 2 + b.getHeight() / 2;
-		// Calculates distance.
-		int distanceX = Math.abs(centerAX - centerBX);
-		int distanceY = Math.abs(centerAY - centerBY);
-
-		return distanceX < maxDistanceX && distanceY < maxDistanceY;
+		}
 	}
 
 	/**
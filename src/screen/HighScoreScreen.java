@@ -32,9 +32,10 @@ public class HighScoreScreen extends Screen {
 		super(width, height, fps);
 
 		this.returnCode = 1;
+		this.isDrawnOnDemand = true;
 
 		try {
-			this.highScores = Core.getFileManager().loadHighScores();
+			this.highScores = Core.getPreloader().getHighScores();
 		} catch (NumberFormatException | IOException e) {
 			logger.warning("Couldn't load high scores!");
 		}
@@ -57,7 +58,6 @@ public class HighScoreScreen extends Screen {
 	protected final void update() {
 		super.update();
 
-		draw();
 		if (inputManager.isKeyDown(KeyEvent.VK_SPACE)
 				&& this.inputDelay.checkFinished())
 			this.isRunning = false;
@@ -65,8 +65,12 @@ public class HighScoreScreen extends Screen {
 
 	/**
 	 * Draws the elements associated with the screen.
+	 * 
+	 * @param interpolation
+	 *            Fraction of a step elapsed since the last update.
 	 */
-	private void draw() {
+	@Override
+	protected final void draw(final float interpolation) {
 		drawManager.initDrawing(this);
 
 		drawManager.drawHighScoreMenu(this);
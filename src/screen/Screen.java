@@ -1,13 +1,15 @@
 package screen;
 
 import java.awt.Insets;
-import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 
 import engine.Cooldown;
 import engine.Core;
 import engine.DrawManager;
+import engine.FramePacer;
+import engine.GameClock;
 import engine.InputManager;
+import engine.TimerWheel;
 
 /**
  * Implements a generic screen.
@@ -19,6 +21,17 @@ public class Screen {
 	
 	/** Milliseconds until the screen accepts user input. */
 	private static final int INPUT_DELAY = 1000;
+	/** Nanoseconds in a second. */
+	private static final long NANOS_PER_SECOND = 1000000000L;
+	/**
+	 * Maximum updates run to catch up before drawing a frame, beyond those
+	 * due between two drawings.
+	 */
+	private static final int MAX_CATCH_UP_STEPS = 5;
+	/** Longest wait for input, in milliseconds, when drawn on demand. */
+	private static final long IDLE_CHECK_INTERVAL = 100;
+	/** Longest time without drawing, when drawn on demand. */
+	private static final long REFRESH_INTERVAL = 1000000000L;
 
 	/** Draw Manager instance. */
 	protected DrawManager drawManager;
@@ -26,22 +39,45 @@ public class Screen {
 	protected InputManager inputManager;
 	/** Application logger. */
 	protected Logger logger;
+	/** Clock the game time is read from. */
+	protected GameClock clock;
 
 	/** Screen width. */
 	protected int width;
 	/** Screen height. */
 	protected int height;
-	/** Frames per second shown on the screen. */
+	/** Updates per second of the screen. */
 	protected int fps;
 	/** Screen insets. */
 	protected Insets insets;
 	/** Time until the screen accepts user input. */
 	protected Cooldown inputDelay;
+	/** Timers of the screen, advanced before each update. */
+	protected TimerWheel timerWheel;
 
 	/** If the screen is running. */
 	protected boolean isRunning;
 	/** What kind of screen goes next. */
 	protected int returnCode;
+	/**
+	 * If the screen only updates on input or when a cooldown finishes, and
+	 * only draws when marked as changed.
+	 */
+	protected boolean isDrawnOnDemand;
+	/** Checks if the screen changed since it was last drawn on demand. */
+	private boolean isDirty;
+	/** Milliseconds until the next update, when drawn on demand. */
+	private long wakeTime;
+	/** Number of updates run. */
+	private long ticks;
+	/** Number of drawings made. */
+	private long frames;
+	/** Number of updates after which the screen stops, 0 for no limit. */
+	private long tickLimit;
+	/** Nanoseconds of running after which the screen stops, 0 for none. */
+	private long timeLimit;
+	/** Time the screen stops at, as given by System.nanoTime. */
+	private long endTime;
 
 	/**
 	 * Constructor, establishes the properties of the screen.
@@ -51,7 +87,8 @@ public class Screen {
 	 * @param height
 	 *            Screen height.
 	 * @param fps
-	 *            Frames per second, frame rate at which the game is run.
+	 *            Frames per second, frame rate at which the game is run, 0
+	 *            to run without limit.
 	 */
 	public Screen(final int width, final int height, final int fps) {
 		this.width = width;
@@ -61,6 +98,8 @@ public class Screen {
 		this.drawManager = Core.getDrawManager();
 		this.inputManager = Core.getInputManager();
 		this.logger = Core.getLogger();
+		this.clock = Core.getClock();
+		this.timerWheel = new TimerWheel(this.clock.getTime());
 		this.inputDelay = Core.getCooldown(INPUT_DELAY);
 		this.inputDelay.reset();
 		this.returnCode = 0;
@@ -74,37 +113,217 @@ public class Screen {
 	}
 
 	/**
-	 * Activates the screen.
+	 * Activates the screen. Updates run at a fixed rate of fps steps per
+	 * second, catching up after slow frames. Drawings are paced on their own,
+	 * at the drawing rate set in Core, and each one receives how far the time
+	 * is into the next step.
 	 * 
 	 * @return Next screen code.
 	 */
 	public int run() {
 		this.isRunning = true;
+		this.endTime = System.nanoTime() + this.timeLimit;
 
-		while (this.isRunning) {
-			long time = System.currentTimeMillis();
+		if (this.isDrawnOnDemand)
+			return runOnDemand();
 
-			update();
+		// Without a limit, every update is followed by a drawing.
+		if (this.fps <= 0) {
+			while (this.isRunning) {
+				step();
+				draw(1f);
+				this.frames++;
+			}
+			return 0;
+		}
 
-			time = (1000 / this.fps) - (System.currentTimeMillis() - time);
-			if (time > 0) {
-				try {
-					TimeUnit.MILLISECONDS.sleep(time);
-				} catch (InterruptedException e) {
-					return 0;
+		long stepTime = NANOS_PER_SECOND / this.fps;
+		long drawTime = stepTime;
+		if (Core.getDrawRate() == 0)
+			drawTime = 0;
+		else if (Core.getDrawRate() > 0)
+			drawTime = NANOS_PER_SECOND / Core.getDrawRate();
+		int maxSteps = MAX_CATCH_UP_STEPS + (int) (drawTime / stepTime);
+		FramePacer pacer = new FramePacer(drawTime);
+		long previousTime = System.nanoTime();
+		long nextDrawTime = previousTime;
+		long accumulatedTime = stepTime;
+
+		while (this.isRunning) {
+			long time = System.nanoTime();
+			accumulatedTime += time - previousTime;
+			previousTime = time;
+
+			int steps = 0;
+			while (accumulatedTime >= stepTime && this.isRunning) {
+				step();
+				accumulatedTime -= stepTime;
+				if (++steps == maxSteps) {
+					// Too far behind, the rest of the delay is dropped.
+					accumulatedTime %= stepTime;
+					break;
 				}
 			}
+
+			// Steps stopped early, by a limit or the screen ending, may leave
+			// more than one step of time behind.
+			draw(Math.min(1f, (float) accumulatedTime / stepTime));
+			this.frames++;
+
+			if (!this.isRunning)
+				break;
+			// Drawings keep their own cadence; late ones start it again.
+			nextDrawTime += drawTime;
+			if (nextDrawTime > System.nanoTime()) {
+				pacer.waitUntil(nextDrawTime);
+			} else {
+				pacer.skipFrame();
+				nextDrawTime = System.nanoTime();
+			}
+			if (Thread.currentThread().isInterrupted())
+				return 0;
 		}
 
+		pacer.report(this.logger, getClass().getSimpleName());
 		return 0;
 	}
 
 	/**
-	 * Updates the elements on screen and checks for events.
+	 * Runs the screen drawing only when it changes. Between updates the
+	 * thread sleeps until a key event, the end of a cooldown the screen is
+	 * waiting for, or a short idle interval to catch a lost or resized
+	 * window.
+	 * 
+	 * @return Next screen code.
+	 */
+	private int runOnDemand() {
+		boolean inputEnabled = this.inputDelay.checkFinished();
+		long lastDrawTime = System.nanoTime() - REFRESH_INTERVAL;
+		this.isDirty = true;
+
+		while (this.isRunning) {
+			long eventCount = this.inputManager.getEventCount();
+			this.wakeTime = IDLE_CHECK_INTERVAL;
+			step();
+
+			if (!inputEnabled && this.inputDelay.checkFinished()) {
+				inputEnabled = true;
+				this.isDirty = true;
+			}
+			wakeAt(this.inputDelay);
+
+			long time = System.nanoTime();
+			if (this.isDirty || this.drawManager.needsFullRedraw()
+					|| time - lastDrawTime >= REFRESH_INTERVAL) {
+				this.isDirty = false;
+				draw(1f);
+				this.frames++;
+				lastDrawTime = time;
+			}
+
+			if (!this.isRunning)
+				break;
+			this.inputManager.waitForEvent(eventCount, this.wakeTime);
+			if (Thread.currentThread().isInterrupted())
+				return 0;
+		}
+		return 0;
+	}
+
+	/**
+	 * Marks the screen as changed, so it is drawn again. Only needed when
+	 * drawn on demand.
+	 */
+	protected final void markDirty() {
+		this.isDirty = true;
+	}
+
+	/**
+	 * Makes the screen update again when a cooldown finishes, even without
+	 * input. Only needed when drawn on demand.
+	 * 
+	 * @param cooldown
+	 *            Cooldown to wait for, ignored if finished.
+	 */
+	protected final void wakeAt(final Cooldown cooldown) {
+		long timeLeft = cooldown.getTimeLeft();
+		if (timeLeft > 0)
+			this.wakeTime = Math.min(this.wakeTime, timeLeft);
+	}
+
+	/**
+	 * Runs one simulation step, and stops the screen if it reached its run
+	 * limit.
+	 */
+	private void step() {
+		this.timerWheel.advance(this.clock.getTime());
+		update();
+		this.clock.tick();
+		this.ticks++;
+		if (this.ticks == this.tickLimit || this.timeLimit > 0
+				&& System.nanoTime() >= this.endTime)
+			this.isRunning = false;
+	}
+
+	/**
+	 * Limits how long the screen runs, for measuring it. The screen stops
+	 * when it finishes on its own or when it reaches either limit.
+	 * 
+	 * @param maxTicks
+	 *            Number of updates to run, 0 for no limit.
+	 * @param maxTime
+	 *            Nanoseconds to run for, 0 for no limit.
+	 */
+	public final void setRunLimit(final long maxTicks, final long maxTime) {
+		this.tickLimit = maxTicks;
+		this.timeLimit = maxTime;
+	}
+
+	/**
+	 * Getter for the number of updates run.
+	 * 
+	 * @return Number of updates.
+	 */
+	public final long getTicks() {
+		return this.ticks;
+	}
+
+	/**
+	 * Getter for the number of drawings made.
+	 * 
+	 * @return Number of drawings.
+	 */
+	public final long getFrames() {
+		return this.frames;
+	}
+
+	/**
+	 * Updates the elements on screen and checks for events. Called once per
+	 * simulation step.
 	 */
 	protected void update() {
 	}
 
+	/**
+	 * Draws the elements associated with the screen.
+	 * 
+	 * @param interpolation
+	 *            Fraction of a step elapsed since the last update, from 0 to
+	 *            1, for drawing moving elements between their previous and
+	 *            current positions.
+	 */
+	protected void draw(final float interpolation) {
+	}
+
+	/**
+	 * Getter for the timers of the screen.
+	 * 
+	 * @return Timer wheel advanced by the screen.
+	 */
+	public final TimerWheel getTimerWheel() {
+		return this.timerWheel;
+	}
+
 	/**
 	 * Getter for screen width.
 	 * 
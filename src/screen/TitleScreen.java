@@ -34,6 +34,7 @@ public class TitleScreen extends Screen {
 
 		// Defaults to play.
 		this.returnCode = 2;
+		this.isDrawnOnDemand = true;
 		this.selectionCooldown = Core.getCooldown(SELECTION_TIME);
 		this.selectionCooldown.reset();
 	}
@@ -55,22 +56,25 @@ public class TitleScreen extends Screen {
 	protected final void update() {
 		super.update();
 
-		draw();
 		if (this.selectionCooldown.checkFinished()
 				&& this.inputDelay.checkFinished()) {
 			if (inputManager.isKeyDown(KeyEvent.VK_UP)
 					|| inputManager.isKeyDown(KeyEvent.VK_W)) {
 				previousMenuItem();
 				this.selectionCooldown.reset();
+				markDirty();
 			}
 			if (inputManager.isKeyDown(KeyEvent.VK_DOWN)
 					|| inputManager.isKeyDown(KeyEvent.VK_S)) {
 				nextMenuItem();
 				this.selectionCooldown.reset();
+				markDirty();
 			}
 			if (inputManager.isKeyDown(KeyEvent.VK_SPACE))
 				this.isRunning = false;
 		}
+		// A held key moves the selection again when the cooldown ends.
+		wakeAt(this.selectionCooldown);
 	}
 
 	/**
@@ -99,8 +103,12 @@ public class TitleScreen extends Screen {
 
 	/**
 	 * Draws the elements associated with the screen.
+	 * 
+	 * @param interpolation
+	 *            Fraction of a step elapsed since the last update.
 	 */
-	private void draw() {
+	@Override
+	protected final void draw(final float interpolation) {
 		drawManager.initDrawing(this);
 
 		drawManager.drawTitle(this);